@@ -0,0 +1,175 @@
+package com.skillstorm.inventory_management.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.skillstorm.inventory_management.InventoryManagementApplication;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Service.IdSequenceAligner;
+import com.skillstorm.inventory_management.Service.ProductSearchIndex;
+import com.skillstorm.inventory_management.Service.WarehouseService;
+
+/**
+ * Starts the application against an in-memory H2 database and seeds it with a fixed shape:
+ * WAREHOUSES warehouses, each stocking the same rows / WAREHOUSES products.
+ * Ids are assigned explicitly so benchmarks can compute them instead of querying,
+ * and the id sequences are moved past them afterwards:
+ * product p (0 based) has id p + 1 and SKU "SKU-p", and the row of product p in
+ * warehouse w (0 based) has inventory id w * productCount + p + 1.
+ */
+public class BenchmarkData {
+
+    public static final int WAREHOUSES = 10;
+    public static final int STARTING_QUANTITY = 1_000;
+
+    static final String[] NAME_WORDS = {
+            "Apple", "Banana", "Cheddar", "Salmon", "Sourdough", "Turkey", "Basil", "Yogurt",
+            "Aspirin", "Detergent", "Shampoo", "Kibble", "Diapers", "Tulip", "Frozen Peas", "Rice"
+    };
+
+    private static final int BATCH = 10_000;
+
+    private final ConfigurableApplicationContext context;
+    private final int productCount;
+
+    private BenchmarkData(ConfigurableApplicationContext context, int productCount) {
+        this.context = context;
+        this.productCount = productCount;
+    }
+
+    /**
+     * Starts a context on a fresh database and seeds about the requested number of inventory rows.
+     * Settings are passed as command line arguments so they take precedence over application.properties
+     * @param rows        inventory rows to create, rounded up to a multiple of WAREHOUSES
+     * @param poolSize    connection pool size, at least the number of benchmark threads
+     */
+    public static BenchmarkData start(int rows, int poolSize) {
+        return start(WebApplicationType.NONE, rows, poolSize);
+    }
+
+    /**
+     * Same as start, with extra settings such as --inventory.capacity.stripes=0
+     * @param rows      inventory rows to create, rounded up to a multiple of WAREHOUSES
+     * @param poolSize  connection pool size, at least the number of benchmark threads
+     * @param settings  command line arguments for the application
+     */
+    public static BenchmarkData start(int rows, int poolSize, String... settings) {
+        return start(WebApplicationType.NONE, rows, poolSize, settings);
+    }
+
+    /**
+     * Same as start, but also serves the API on a random local port, see port()
+     * @param rows     inventory rows to create, rounded up to a multiple of WAREHOUSES
+     * @param poolSize connection pool size
+     * @param profiles Spring profiles to activate, for example virtual
+     */
+    public static BenchmarkData startWeb(int rows, int poolSize, String... profiles) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--management.server.port=-1"));
+        if (profiles.length > 0) {
+            args.add("--spring.profiles.active=" + String.join(",", profiles));
+        }
+        return start(WebApplicationType.SERVLET, rows, poolSize, args.toArray(String[]::new));
+    }
+
+    private static BenchmarkData start(WebApplicationType type, int rows, int poolSize, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryManagementApplication.class)
+                .web(type)
+                .run(args.toArray(String[]::new));
+
+        int productCount = Math.max(1, (rows + WAREHOUSES - 1) / WAREHOUSES);
+        BenchmarkData data = new BenchmarkData(context, productCount);
+        data.seed();
+        return data;
+    }
+
+    private void seed() {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> warehouses = new ArrayList<>();
+        for (int w = 0; w < WAREHOUSES; w++) {
+            warehouses.add(new Object[] { w + 1, "Warehouse " + w, "Region " + (w % 3), Integer.MAX_VALUE });
+        }
+        jdbc.batchUpdate("""
+                insert into warehouses (id, warehouse_name, warehouse_location, max_capacity, current_load)
+                values (?, ?, ?, ?, 0)
+                """, warehouses);
+
+        Department[] departments = Department.values();
+        List<Object[]> products = new ArrayList<>(BATCH);
+        for (int p = 0; p < productCount; p++) {
+            String name = NAME_WORDS[p % NAME_WORDS.length] + " " + p;
+            products.add(new Object[] { p + 1, sku(p), name, "Seeded product " + p, departments[p % departments.length].name() });
+            if (products.size() == BATCH) {
+                insertProducts(jdbc, products);
+            }
+        }
+        insertProducts(jdbc, products);
+
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int w = 0; w < WAREHOUSES; w++) {
+            for (int p = 0; p < productCount; p++) {
+                rows.add(new Object[] { inventoryId(w, p), w + 1, p + 1, STARTING_QUANTITY, "Aisle " + (p % 40) });
+                if (rows.size() == BATCH) {
+                    insertInventory(jdbc, rows);
+                }
+            }
+        }
+        insertInventory(jdbc, rows);
+
+        context.getBean(IdSequenceAligner.class).alignAll();
+        context.getBean(WarehouseService.class).rebuildAllCurrentLoads();
+        context.getBean(ProductSearchIndex.class).rebuild();
+    }
+
+    private static void insertProducts(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate("""
+                insert into products (id, sku, product_name, description, category)
+                values (?, ?, ?, ?, ?)
+                """, batch);
+        batch.clear();
+    }
+
+    private static void insertInventory(JdbcTemplate jdbc, List<Object[]> batch) {
+        jdbc.batchUpdate("""
+                insert into inventory (inventory_id, warehouse_id, product_id, quantity, storage_location)
+                values (?, ?, ?, ?, ?)
+                """, batch);
+        batch.clear();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public int productCount() {
+        return productCount;
+    }
+
+    public int inventoryId(int warehouseIndex, int productIndex) {
+        return warehouseIndex * productCount + productIndex + 1;
+    }
+
+    public static String sku(int productIndex) {
+        return "SKU-" + productIndex;
+    }
+
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,41 @@
+package com.skillstorm.inventory_management.benchmark;
+
+import java.io.File;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count with the GC profiler attached,
+ * so every result reports throughput next to gc.alloc.rate.norm (bytes per operation).
+ * Settings come from system properties, which the benchmark Maven profile passes through:
+ * benchmark.rows (comma separated row counts), benchmark.threads (comma separated thread counts)
+ * and benchmark.include (regular expression over benchmark names).
+ * JSON results are written to target/jmh-threads-N.json.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String[] rows = System.getProperty("benchmark.rows", "1000").split(",");
+        String[] threads = System.getProperty("benchmark.threads", "1,4,16").split(",");
+        String include = System.getProperty("benchmark.include", ".*");
+
+        new File("target").mkdirs();
+        for (String threadCount : threads) {
+            int count = Integer.parseInt(threadCount.trim());
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .param("rows", rows)
+                    .threads(count)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-threads-" + count + ".json")
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
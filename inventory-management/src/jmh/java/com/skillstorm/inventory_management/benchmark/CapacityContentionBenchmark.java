@@ -0,0 +1,60 @@
+package com.skillstorm.inventory_management.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Service.InventoryService;
+
+/**
+ * Receipts from many threads into one warehouse, the case where every writer needs its capacity.
+ * stripes=0 reserves on the warehouse row every time, so the writers queue on that row lock;
+ * with stripes the reservations spread over the stripe rows and only refills lock the warehouse.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(16)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class CapacityContentionBenchmark {
+
+    @Param({ "0", "8", "32" })
+    public int stripes;
+
+    private BenchmarkData data;
+    private InventoryService inventoryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = BenchmarkData.start(10_000, 16, "--inventory.capacity.stripes=" + stripes);
+        inventoryService = data.bean(InventoryService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        data.close();
+    }
+
+    @Benchmark
+    public Inventory receiveIntoOneWarehouse() {
+        int product = ThreadLocalRandom.current().nextInt(data.productCount());
+        return inventoryService.addInventoryToWarehouse(1, BenchmarkData.sku(product), "ignored", null, null, 1, null);
+    }
+}
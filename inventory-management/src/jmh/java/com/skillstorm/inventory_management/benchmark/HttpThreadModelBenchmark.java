@@ -0,0 +1,103 @@
+package com.skillstorm.inventory_management.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End to end HTTP throughput and latency percentiles of the default Tomcat thread pool
+ * against the virtual profile (virtual threads plus the connection limiter).
+ * Both modes use a ten connection pool, so with many benchmark threads the platform mode
+ * queues in Tomcat and the virtual mode queues in the limiter.
+ * The virtual mode needs Java 21 or newer and fails its setup on older JVMs.
+ * Run with high thread counts, for example -Dbenchmark.threads=16,256,1024.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class HttpThreadModelBenchmark {
+
+    private static final int POOL_SIZE = 10;
+
+    @Param({ "100000" })
+    public int rows;
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    private BenchmarkData data;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("virtual".equals(threads) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, this JVM is Java "
+                    + Runtime.version().feature());
+        }
+        data = "virtual".equals(threads)
+                ? BenchmarkData.startWeb(rows, POOL_SIZE, "virtual")
+                : BenchmarkData.startWeb(rows, POOL_SIZE);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        baseUrl = "http://localhost:" + data.port();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        data.close();
+    }
+
+    @Benchmark
+    public int getInventory() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int id = data.inventoryId(random.nextInt(BenchmarkData.WAREHOUSES), random.nextInt(data.productCount()));
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/inventory/" + id)).GET());
+    }
+
+    /**
+     * Adds or removes one unit, so quantities random walk around their starting value
+     */
+    @Benchmark
+    public int patchQuantity() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int id = data.inventoryId(random.nextInt(BenchmarkData.WAREHOUSES), random.nextInt(data.productCount()));
+        String body = "{\"delta\":" + (random.nextBoolean() ? 1 : -1) + "}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/inventory/" + id))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 500) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,117 @@
+package com.skillstorm.inventory_management.benchmark;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import com.skillstorm.inventory_management.DTO.InventoryRow;
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Service.InventoryService;
+import com.skillstorm.inventory_management.Service.WarehouseService;
+
+/**
+ * Throughput of the InventoryService and WarehouseService hot paths on a seeded H2 database.
+ * Every invocation picks a random warehouse and product, so concurrent threads mostly touch
+ * different inventory rows but share the warehouse load counters, like real traffic does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class InventoryServiceBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int rows;
+
+    private BenchmarkData data;
+    private InventoryService inventoryService;
+    private WarehouseService warehouseService;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        data = BenchmarkData.start(rows, Math.max(10, params.getThreads()));
+        inventoryService = data.bean(InventoryService.class);
+        warehouseService = data.bean(WarehouseService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        data.close();
+    }
+
+    @Benchmark
+    public Inventory addInventoryToWarehouse() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int product = random.nextInt(data.productCount());
+        return inventoryService.addInventoryToWarehouse(
+                randomWarehouseId(random), BenchmarkData.sku(product), "ignored", null, null, 1, null);
+    }
+
+    /**
+     * Moves one unit between two random warehouses. The direction is random,
+     * so row quantities random walk around their starting value and do not run out
+     */
+    @Benchmark
+    public void transferInventory() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int product = random.nextInt(data.productCount());
+        int from = random.nextInt(BenchmarkData.WAREHOUSES);
+        int to = (from + 1 + random.nextInt(BenchmarkData.WAREHOUSES - 1)) % BenchmarkData.WAREHOUSES;
+        inventoryService.transferInventory(data.inventoryId(from, product), from + 1, to + 1, 1);
+    }
+
+    @Benchmark
+    public int getCurrentWarehouseLoad() {
+        return warehouseService.getCurrentWarehouseLoad(randomWarehouseId(ThreadLocalRandom.current()));
+    }
+
+    /**
+     * Four character name fragment, answered from the trigram index
+     */
+    @Benchmark
+    public List<InventoryRow> searchByProductName() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String word = BenchmarkData.NAME_WORDS[random.nextInt(BenchmarkData.NAME_WORDS.length)];
+        String fragment = word.substring(0, 4).toLowerCase(Locale.ROOT);
+        return inventoryService.searchByProductNameInWarehouse(randomWarehouseId(random), fragment);
+    }
+
+    /**
+     * Two character name fragment, answered by the LIKE fallback query
+     */
+    @Benchmark
+    public List<InventoryRow> searchByShortProductName() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String word = BenchmarkData.NAME_WORDS[random.nextInt(BenchmarkData.NAME_WORDS.length)];
+        return inventoryService.searchByProductNameInWarehouse(randomWarehouseId(random), word.substring(0, 2));
+    }
+
+    @Benchmark
+    public List<InventoryRow> searchBySku() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String sku = BenchmarkData.sku(random.nextInt(data.productCount()));
+        return inventoryService.searchBySkuInWarehouse(randomWarehouseId(random), sku);
+    }
+
+    private static int randomWarehouseId(ThreadLocalRandom random) {
+        return random.nextInt(BenchmarkData.WAREHOUSES) + 1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.skillstorm.inventory_management.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.skillstorm.inventory_management.Controller.SparseFields;
+import com.skillstorm.inventory_management.DTO.InventoryRow;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Model.Warehouse;
+
+/**
+ * Cost of writing one inventory listing to JSON, without a database or web server.
+ * shape entity writes Inventory entities with their nested Warehouse and Product,
+ * row writes the flat InventoryRow the listing endpoints return, and sparse writes
+ * rows narrowed to ?fields=sku,quantity. mapper jackson is plain reflection,
+ * blackbird adds the module the application registers.
+ * The raw and gzip sizes of each shape are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xms2g", "-Xmx2g" })
+public class SerializationBenchmark {
+
+    static final Set<String> SPARSE_FIELDS = Set.of("sku", "quantity");
+
+    @Param({ "10000" })
+    public int rows;
+
+    @Param({ "jackson", "blackbird" })
+    public String mapper;
+
+    @Param({ "entity", "row", "sparse" })
+    public String shape;
+
+    private ObjectWriter writer;
+    private List<?> body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(mapper)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        SimpleBeanPropertyFilter filter = "sparse".equals(shape)
+                ? SimpleBeanPropertyFilter.filterOutAllExcept(SPARSE_FIELDS)
+                : SimpleBeanPropertyFilter.serializeAll();
+        ObjectMapper objectMapper = builder.filters(new SimpleFilterProvider().addFilter(SparseFields.FILTER, filter)
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())).build();
+        writer = objectMapper.writer();
+        body = "entity".equals(shape) ? entities() : inventoryRows();
+
+        byte[] json = serialize();
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        }
+        System.out.printf("%n%s x %d: %d bytes, %d gzipped%n", shape, rows, json.length, gzipped.size());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(body);
+    }
+
+    private List<Inventory> entities() {
+        Warehouse warehouse = new Warehouse(1, "Main", "Warehouse District", rows * BenchmarkData.STARTING_QUANTITY, null);
+        warehouse.setCurrentLoad(rows * BenchmarkData.STARTING_QUANTITY);
+        List<Inventory> entities = new ArrayList<>(rows);
+        for (int p = 0; p < rows; p++) {
+            Product product = new Product(p + 1, "SKU-" + p, name(p), null, category(p));
+            entities.add(new Inventory(p + 1, warehouse, product, BenchmarkData.STARTING_QUANTITY, "A-" + p));
+        }
+        return entities;
+    }
+
+    private List<InventoryRow> inventoryRows() {
+        List<InventoryRow> inventoryRows = new ArrayList<>(rows);
+        for (int p = 0; p < rows; p++) {
+            inventoryRows.add(new InventoryRow(p + 1, p + 1, "SKU-" + p, name(p), category(p),
+                    BenchmarkData.STARTING_QUANTITY, "A-" + p));
+        }
+        return inventoryRows;
+    }
+
+    private static String name(int p) {
+        return BenchmarkData.NAME_WORDS[p % BenchmarkData.NAME_WORDS.length] + " " + p;
+    }
+
+    private static Department category(int p) {
+        Department[] departments = Department.values();
+        return departments[p % departments.length];
+    }
+}
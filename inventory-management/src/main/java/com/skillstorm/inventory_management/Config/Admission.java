@@ -0,0 +1,25 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller route in the admission group it is limited with by the AdmissionControlFilter.
+ * An async route keeps its slot until the response completes, so a streamed export counts for as long
+ * as it reads rows; long-lived streams that need no connection once open are marked streaming
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Admission {
+
+    RouteGroup value();
+
+    /**
+     * true to give the slot back when the handler returns, even if the response is still being streamed
+     */
+    boolean streaming() default false;
+}
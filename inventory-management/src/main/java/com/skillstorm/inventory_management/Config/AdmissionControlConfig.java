@@ -0,0 +1,60 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts the inventory, warehouse and product endpoints behind an AdmissionControlFilter.
+ * Each route group reads its limits from inventory.admission.{group}.* (max-concurrent, max-queued,
+ * max-wait, rate and burst; a rate of 0 turns its rate limit off). The defaults leave part of the
+ * connection pool to lookups whatever the other groups are doing.
+ * The filter is ordered after the IdempotencyFilter, so replays are not counted, and ahead of the
+ * JDBC limiter of the virtual profile, so queued requests do not hold one of its permits.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlConfig.class);
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Qualifier("requestMappingHandlerMapping") ObjectProvider<HandlerMapping> handlerMapping,
+            Environment environment,
+            MeterRegistry meterRegistry) {
+
+        Map<RouteGroup, Bulkhead> bulkheads = new EnumMap<>(RouteGroup.class);
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "inventory.admission." + group.key() + ".";
+            bulkheads.put(group, new Bulkhead(group,
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, 10),
+                    environment.getProperty(prefix + "max-queued", Integer.class, 50),
+                    environment.getProperty(prefix + "max-wait", Duration.class, Duration.ofSeconds(1)),
+                    environment.getProperty(prefix + "rate", Double.class, 0.0),
+                    environment.getProperty(prefix + "burst", Integer.class, 1),
+                    meterRegistry));
+        }
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(handlerMapping::getObject, bulkheads));
+        registration.addUrlPatterns("/inventory/*", "/warehouses/*", "/products/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 5);
+        bulkheads.forEach((group, bulkhead) ->
+                log.info("Admitting {} {} requests at once", bulkhead.maxConcurrent(), group.key()));
+        return registration;
+    }
+}
@@ -0,0 +1,156 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits API requests through the bulkhead of their route group before they can reach the connection pool.
+ * The group comes from the {@link Admission} annotation of the controller method the request maps to,
+ * looked up once per method. Requests that are refused get 429 with Retry-After.
+ * An admitted request that goes async, such as a streamed export, keeps its slot until the async request
+ * completes, errors or times out, unless its route is marked streaming.
+ * Requests that map to no controller method pass through, so Spring still answers them with 404 or 405.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Supplier<HandlerMapping> handlerMapping;
+    private final Map<RouteGroup, Bulkhead> bulkheads;
+    private final Map<Method, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @param handlerMapping resolves the controller mapping on first use, after the MVC infrastructure has started
+     * @param bulkheads      limits of every route group
+     */
+    public AdmissionControlFilter(Supplier<HandlerMapping> handlerMapping, Map<RouteGroup, Bulkhead> bulkheads) {
+        this.handlerMapping = handlerMapping;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Route route = findRoute(request);
+        Bulkhead bulkhead = route == null ? null : bulkheads.get(route.group());
+        if (bulkhead == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long retryAfter = bulkhead.acquire();
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Too many " + route.group().key() + " requests, retry after " + retryAfter + " s");
+            return;
+        }
+        boolean releasedOnCompletion = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted() && !route.streaming()) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(bulkhead));
+                releasedOnCompletion = true;
+            }
+        } finally {
+            if (!releasedOnCompletion) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * Finds the route group of the controller method a request maps to
+     * @return the route, or null if the request does not map to a controller method
+     */
+    private Route findRoute(HttpServletRequest request) {
+        HandlerExecutionChain handler;
+        RequestPath previous = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request)
+                : null;
+        ServletRequestPathUtils.parseAndCache(request);
+        try {
+            handler = handlerMapping.get().getHandler(request);
+        } catch (Exception e) {
+            // unsupported method or media type, the dispatcher reports it
+            return null;
+        } finally {
+            ServletRequestPathUtils.setParsedRequestPath(previous, request);
+        }
+        if (handler == null || !(handler.getHandler() instanceof HandlerMethod method)) {
+            return null;
+        }
+        return routes.computeIfAbsent(method.getMethod(), m -> {
+            Admission admission = method.getMethodAnnotation(Admission.class);
+            if (admission != null) {
+                return new Route(admission.value(), admission.streaming());
+            }
+            String httpMethod = request.getMethod();
+            return new Route("GET".equals(httpMethod) || "HEAD".equals(httpMethod) ? RouteGroup.LOOKUP : RouteGroup.WRITE,
+                    false);
+        });
+    }
+
+    private record Route(RouteGroup group, boolean streaming) {
+    }
+
+    /**
+     * Gives an async request's slot back once, whichever way the request ends
+     */
+    private static class ReleaseOnCompletion implements AsyncListener {
+
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are dropped when async is started again, so stay registered for the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
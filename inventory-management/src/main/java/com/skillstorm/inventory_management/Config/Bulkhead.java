@@ -0,0 +1,160 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Admission limits of one route group: a token bucket for the request rate and a bulkhead for
+ * the requests running at once. A request over the rate is refused at once. A request that finds
+ * the bulkhead full waits in a short bounded queue, and is refused if the queue is full or
+ * no slot frees up within the wait limit.
+ * Running and queued requests, queue waits and rejections by reason are published as inventory.admission.* metrics.
+ */
+class Bulkhead {
+
+    private final Semaphore slots;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final TokenBucket rate;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Counter rateRejections;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+    private final Timer queueWait;
+
+    /**
+     * @param group         group the limits apply to
+     * @param maxConcurrent requests running at once
+     * @param maxQueued     requests waiting for a slot at once, 0 to refuse as soon as the bulkhead is full
+     * @param maxWait       longest wait for a slot
+     * @param ratePerSecond sustained requests per second, 0 for no rate limit
+     * @param burst         requests allowed at once above the sustained rate
+     */
+    Bulkhead(RouteGroup group, int maxConcurrent, int maxQueued, Duration maxWait,
+             double ratePerSecond, int burst, MeterRegistry meterRegistry) {
+        if (maxConcurrent <= 0 || maxQueued < 0) {
+            throw new IllegalArgumentException("Admission limits of " + group.key() + " must be positive");
+        }
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rate = ratePerSecond > 0 ? new TokenBucket(ratePerSecond, Math.max(burst, 1)) : null;
+
+        this.rateRejections = rejections(meterRegistry, group, "rate");
+        this.queueFullRejections = rejections(meterRegistry, group, "queue-full");
+        this.timeoutRejections = rejections(meterRegistry, group, "timeout");
+        this.queueWait = Timer.builder("inventory.admission.wait")
+                .description("Time requests waited for a bulkhead slot")
+                .tag("group", group.key())
+                .register(meterRegistry);
+        Gauge.builder("inventory.admission.active", slots, s -> maxConcurrent - s.availablePermits())
+                .description("Requests running inside the bulkhead")
+                .tag("group", group.key())
+                .register(meterRegistry);
+        Gauge.builder("inventory.admission.queued", queued, AtomicInteger::get)
+                .description("Requests waiting for a bulkhead slot")
+                .tag("group", group.key())
+                .register(meterRegistry);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, RouteGroup group, String reason) {
+        return Counter.builder("inventory.admission.rejections")
+                .description("Requests turned away with 429")
+                .tag("group", group.key())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request, waiting up to the wait limit for a slot. An admitted request must call {@link #release()}
+     * @return 0 if admitted, otherwise the seconds the client should wait before retrying
+     */
+    long acquire() {
+        if (rate != null) {
+            long waitNanos = rate.take();
+            if (waitNanos > 0) {
+                rateRejections.increment();
+                return toRetryAfter(waitNanos);
+            }
+        }
+        if (slots.tryAcquire()) {
+            return 0;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            queueFullRejections.increment();
+            return toRetryAfter(maxWaitNanos);
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            queued.decrementAndGet();
+        }
+        queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            timeoutRejections.increment();
+            return toRetryAfter(maxWaitNanos);
+        }
+        return 0;
+    }
+
+    void release() {
+        slots.release();
+    }
+
+    int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private static long toRetryAfter(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    /**
+     * Token bucket refilled continuously at a fixed rate up to its burst size
+     */
+    private static class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double ratePerSecond, int burst) {
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = burst;
+            this.tokens = burst;
+            this.refilledAt = System.nanoTime();
+        }
+
+        /**
+         * Takes one token
+         * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available
+         */
+        synchronized long take() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+    }
+}
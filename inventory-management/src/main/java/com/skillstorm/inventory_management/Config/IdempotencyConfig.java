@@ -0,0 +1,39 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Puts the inventory create and transfer endpoints behind an IdempotencyFilter.
+ * It is ordered ahead of the JDBC limiter of the virtual profile, so a replayed response never waits for a permit.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    private static final List<String> ROUTES = List.of(
+            "/inventory/warehouse/\\d+",
+            "/inventory/\\d+/transfer",
+            "/inventory/transfers");
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            @Value("${inventory.idempotency.maximum-size:10000}") long maximumSize,
+            @Value("${inventory.idempotency.ttl:24h}") Duration ttl,
+            @Value("${inventory.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            MeterRegistry meterRegistry) {
+
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(ROUTES, maximumSize, ttl, waitTimeout, meterRegistry));
+        registration.addUrlPatterns("/inventory/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
+}
@@ -0,0 +1,306 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Makes retried inventory writes safe with an Idempotency-Key request header.
+ * The first request with a key runs normally and its response is kept in a bounded in-memory store
+ * for the configured TTL. A retry with the same key, query parameters and body gets the stored response back,
+ * marked with Idempotent-Replayed, without reaching the controller or the database. A duplicate that
+ * arrives while the first request is still running waits for it and gets the same response.
+ * Server errors and 429 responses are handed to waiting duplicates but not kept, so a later retry runs again.
+ * Keys are scoped to the path. The fingerprint covers the method, the query parameters in name order and
+ * the body, since transfers carry their warehouses and quantity in the query string; reusing a key on the
+ * same path with any of them changed is answered with 422 instead of replaying the first request.
+ * Outcomes are counted in inventory.idempotency.requests and the store is published as cache metrics named idempotency.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final List<Pattern> routes;
+    private final long waitTimeoutNanos;
+    private final Cache<String, Execution> executions;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param routes       POST paths to protect, as regular expressions matched against the whole path
+     * @param maximumSize  most keys kept at once
+     * @param ttl          how long a response is kept after it completes
+     * @param waitTimeout  how long a duplicate waits for the request that is still running
+     */
+    public IdempotencyFilter(List<String> routes, long maximumSize, Duration ttl, Duration waitTimeout,
+                             MeterRegistry meterRegistry) {
+        this.routes = routes.stream().map(Pattern::compile).toList();
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.meterRegistry = meterRegistry;
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, executions, "idempotency");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return routes.stream().noneMatch(route -> route.matcher(path).matches());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        String storeKey = request.getRequestURI() + " " + key;
+        Execution execution = new Execution(fingerprint(request.getMethod(), request.getQueryString(), body));
+        Execution existing = executions.asMap().putIfAbsent(storeKey, execution);
+
+        if (existing != null) {
+            if (!Arrays.equals(existing.fingerprint, execution.fingerprint)) {
+                count("mismatch");
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used with a different request");
+                return;
+            }
+            replay(existing, response);
+            return;
+        }
+
+        count("executed");
+        ContentCachingResponseWrapper recorder = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(new CachedBodyRequest(request, body), recorder);
+        } catch (IOException | ServletException | RuntimeException e) {
+            executions.asMap().remove(storeKey, execution);
+            execution.result.completeExceptionally(e);
+            throw e;
+        }
+        StoredResponse stored = new StoredResponse(recorder.getStatus(), recorder.getContentType(),
+                recorder.getHeader(HttpHeaders.RETRY_AFTER), recorder.getContentAsByteArray());
+        if (stored.status >= 500 || stored.status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            executions.asMap().remove(storeKey, execution);
+        }
+        execution.result.complete(stored);
+        recorder.copyBodyToResponse();
+    }
+
+    /**
+     * Answers a duplicate with the response of the first request, waiting for it if it is still running
+     */
+    private void replay(Execution existing, HttpServletResponse response) throws IOException {
+        StoredResponse stored;
+        boolean running = !existing.result.isDone();
+        try {
+            stored = existing.result.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            count("timeout");
+            reject(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress, retry later");
+            return;
+        } catch (ExecutionException e) {
+            count("failed");
+            reject(response, HttpStatus.CONFLICT, "The request with this " + HEADER + " failed, retry it");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the original request");
+            return;
+        }
+        count(running ? "coalesced" : "replayed");
+        response.setStatus(stored.status);
+        if (stored.contentType != null) {
+            response.setContentType(stored.contentType);
+        }
+        if (stored.retryAfter != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, stored.retryAfter);
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body.length);
+        response.getOutputStream().write(stored.body);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        if (status == HttpStatus.CONFLICT) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        }
+        response.getWriter().write(message);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("inventory.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    /**
+     * Hash of everything that decides what a request does besides its path
+     */
+    private static byte[] fingerprint(String method, String queryString, byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        digest.update((method + "\n" + canonicalQuery(queryString) + "\n").getBytes(StandardCharsets.UTF_8));
+        return digest.digest(body);
+    }
+
+    /**
+     * Decoded query parameters sorted by name, keeping the order of repeated names,
+     * so ?quantity=5&toWarehouse=2 and ?toWarehouse=2&quantity=5 give the same fingerprint
+     */
+    private static String canonicalQuery(String queryString) {
+        if (queryString == null || queryString.isEmpty()) {
+            return "";
+        }
+        List<String[]> parameters = new ArrayList<>();
+        for (String pair : queryString.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            parameters.add(new String[] { decode(name), decode(value) });
+        }
+        parameters.sort(Comparator.comparing(parameter -> parameter[0]));
+        StringBuilder canonical = new StringBuilder();
+        for (String[] parameter : parameters) {
+            if (canonical.length() > 0) {
+                canonical.append('&');
+            }
+            canonical.append(encode(parameter[0])).append('=').append(encode(parameter[1]));
+        }
+        return canonical.toString();
+    }
+
+    private static String decode(String part) {
+        try {
+            return URLDecoder.decode(part, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return part;
+        }
+    }
+
+    private static String encode(String part) {
+        return URLEncoder.encode(part, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * First request seen for a key: its fingerprint and the response once it completes
+     */
+    private static class Execution {
+
+        private final byte[] fingerprint;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        Execution(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private record StoredResponse(int status, String contentType, String retryAfter, byte[] body) {
+    }
+
+    /**
+     * Request whose body was already read, served again from memory to the controller
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Cached request bodies are read synchronously");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps the number of API requests running at once to the size of the connection pool.
+ * With open-in-view every request holds a JDBC connection until it completes, so on virtual threads
+ * the surplus requests wait here on a fair semaphore instead of piling up inside the pool.
+ * A request that waits longer than the acquire timeout is answered with 503 and Retry-After.
+ * A request that goes async, such as a streamed export, keeps its permit until the async request completes,
+ * errors or times out. Streaming paths, whose async part holds no connection, give it back when the handler returns.
+ * Permits in use, waiting requests and rejections are published as inventory.jdbc.limiter.* metrics.
+ */
+public class JdbcConcurrencyFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final Counter rejections;
+    private final List<String> streamingPaths;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * @param maxPermits     requests admitted at once
+     * @param acquireTimeout how long a request waits for a permit
+     * @param streamingPaths Ant patterns of async routes that release their connection before going async
+     */
+    public JdbcConcurrencyFilter(int maxPermits, Duration acquireTimeout, List<String> streamingPaths,
+                                 MeterRegistry meterRegistry) {
+        if (maxPermits <= 0) {
+            throw new IllegalArgumentException("JDBC limiter permits must be positive");
+        }
+        this.permits = new Semaphore(maxPermits, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.streamingPaths = List.copyOf(streamingPaths);
+        this.rejections = Counter.builder("inventory.jdbc.limiter.rejections")
+                .description("Requests turned away because no connection permit was free in time")
+                .register(meterRegistry);
+        Gauge.builder("inventory.jdbc.limiter.active", permits, p -> maxPermits - p.availablePermits())
+                .description("Requests currently holding a connection permit")
+                .register(meterRegistry);
+        Gauge.builder("inventory.jdbc.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a connection permit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejections.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("Server is busy, retry the request");
+            return;
+        }
+        boolean releasedOnCompletion = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted() && !isStreaming(request)) {
+                request.getAsyncContext().addListener(new ReleaseOnCompletion(permits));
+                releasedOnCompletion = true;
+            }
+        } finally {
+            if (!releasedOnCompletion) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean isStreaming(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return streamingPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    /**
+     * Gives an async request's permit back once, whichever way the request ends
+     */
+    private static class ReleaseOnCompletion implements AsyncListener {
+
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseOnCompletion(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are dropped when async is started again, so stay registered for the new cycle
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
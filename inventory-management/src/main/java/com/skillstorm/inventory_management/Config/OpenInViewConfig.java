@@ -0,0 +1,32 @@
+package com.skillstorm.inventory_management.Config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view for every route except the inventory event streams.
+ * The request's EntityManager keeps the connection it first used until the request completes, and an
+ * event stream stays open for up to inventory.events.timeout, so a stream would hold a pooled connection
+ * the whole time. Without it the warehouse check at subscribe returns its connection when the lookup ends.
+ * Declaring the interceptor here replaces the one Spring Boot registers for spring.jpa.open-in-view.
+ */
+@Configuration
+public class OpenInViewConfig implements WebMvcConfigurer {
+
+    /** async routes that hold no connection while they stream */
+    static final String EVENT_STREAMS = "/inventory/warehouse/*/events";
+
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns(EVENT_STREAMS);
+    }
+}
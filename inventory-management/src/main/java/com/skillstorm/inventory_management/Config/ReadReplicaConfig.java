@@ -0,0 +1,92 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Settings for the replicas profile, which offloads reads to one or more read replicas.
+ * The primary pool is built from spring.datasource, each URL in inventory.datasource.replica-urls
+ * gets its own read-only Hikari pool, and @Transactional(readOnly = true) service methods are
+ * routed to a replica by ReadWriteRoutingDataSource. Writes and reads outside a read-only
+ * transaction stay on the primary.
+ */
+@Configuration
+@Profile("replicas")
+public class ReadReplicaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaSelector replicaSelector(
+            @Value("${inventory.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${inventory.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${inventory.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${inventory.datasource.replica-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${inventory.datasource.replica-strategy:round-robin}") String strategy,
+            @Value("${inventory.datasource.replica-probe-timeout-seconds:2}") int probeTimeoutSeconds,
+            @Value("${inventory.datasource.replica-probe-ms:5000}") long probeIntervalMillis,
+            @Value("${inventory.datasource.replica-connection-timeout:2s}") Duration connectionTimeout,
+            MeterRegistry meterRegistry) {
+
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + pools.size());
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        if (pools.isEmpty()) {
+            throw new IllegalStateException("The replicas profile needs at least one URL in inventory.datasource.replica-urls");
+        }
+        ReplicaSelector.Strategy parsed = ReplicaSelector.Strategy.parse(strategy);
+        log.info("Routing read-only transactions to {} replica(s), {}", pools.size(), parsed);
+        return new ReplicaSelector(pools, parsed, probeTimeoutSeconds, probeIntervalMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ReplicaSelector replicaSelector,
+                                 MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaSelector, meterRegistry));
+    }
+}
@@ -0,0 +1,58 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sends connections for read-only transactions to a replica chosen by the ReplicaSelector
+ * and everything else to the primary.
+ * The key is decided when the physical connection is fetched, so this must sit behind a
+ * LazyConnectionDataSourceProxy; otherwise the transaction manager takes the connection before
+ * the read-only flag of the transaction is visible. Routed connections are counted in
+ * inventory.datasource.routed, tagged by target.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaSelector replicaSelector;
+    private final Map<String, Counter> routed = new HashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSelector replicaSelector, MeterRegistry meterRegistry) {
+        this.replicaSelector = replicaSelector;
+        Map<Object, Object> targets = new HashMap<>(replicaSelector.dataSources());
+        targets.put(PRIMARY, primary);
+        for (Object key : targets.keySet()) {
+            routed.put((String) key, Counter.builder("inventory.datasource.routed")
+                    .description("Connections handed out by the read/write routing data source")
+                    .tag("target", (String) key)
+                    .register(meterRegistry));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        initialize();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = PRIMARY;
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            String replica = replicaSelector.select();
+            if (replica != null) {
+                key = replica;
+            }
+        }
+        routed.get(key).increment();
+        return key;
+    }
+}
@@ -0,0 +1,175 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Chooses the replica pool for a read-only transaction.
+ * round-robin cycles through the healthy replicas, least-latency picks the healthy replica with the
+ * lowest smoothed probe time. Every replica is probed on a fixed delay by a thread of its own, so a replica
+ * that hangs until its pool's connection timeout never holds up the application's scheduled jobs.
+ * A replica that fails a probe is skipped until one succeeds again, and reads fall back to the primary
+ * while no replica is healthy.
+ * Probe latency and health are published as inventory.datasource.replica.latency and .healthy, tagged by replica.
+ */
+public class ReplicaSelector implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSelector.class);
+
+    private static final double SMOOTHING = 0.3;
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_LATENCY;
+
+        /**
+         * Parses round-robin or least-latency, case insensitive
+         * @throws IllegalArgumentException for any other value
+         */
+        public static Strategy parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported replica strategy " + value
+                        + ", expected round-robin or least-latency");
+            }
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final int probeTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @param probeIntervalMillis delay between the end of one probe round and the start of the next
+     */
+    public ReplicaSelector(List<HikariDataSource> pools, Strategy strategy, int probeTimeoutSeconds,
+                           long probeIntervalMillis, MeterRegistry meterRegistry) {
+        List<Replica> list = new ArrayList<>();
+        for (int i = 0; i < pools.size(); i++) {
+            Replica replica = new Replica("replica-" + i, pools.get(i));
+            list.add(replica);
+            Gauge.builder("inventory.datasource.replica.latency", replica, r -> r.latencyMillis)
+                    .description("Smoothed connection probe time of a read replica")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.key)
+                    .register(meterRegistry);
+            Gauge.builder("inventory.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("1 while the read replica passes its probe, 0 while reads skip it")
+                    .tag("replica", replica.key)
+                    .register(meterRegistry);
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.strategy = strategy;
+        this.probeTimeoutSeconds = probeTimeoutSeconds;
+        prober.scheduleWithFixedDelay(this::probe, probeIntervalMillis, probeIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replica pools by routing key
+     */
+    public Map<String, DataSource> dataSources() {
+        Map<String, DataSource> byKey = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            byKey.put(replica.key, replica.pool);
+        }
+        return byKey;
+    }
+
+    /**
+     * Picks the replica for the next read-only connection
+     * @return routing key of a healthy replica, or null if none is healthy
+     */
+    public String select() {
+        if (strategy == Strategy.LEAST_LATENCY) {
+            Replica best = null;
+            for (Replica replica : replicas) {
+                if (replica.healthy && (best == null || replica.latencyMillis < best.latencyMillis)) {
+                    best = replica;
+                }
+            }
+            return best == null ? null : best.key;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica.key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Times a connection validity check on every replica and updates its health and smoothed latency
+     * Runs on the replica-probe thread; getConnection waits at most the replica pool's connection timeout
+     */
+    public void probe() {
+        for (Replica replica : replicas) {
+            long start = System.nanoTime();
+            boolean valid;
+            try (Connection connection = replica.pool.getConnection()) {
+                valid = connection.isValid(probeTimeoutSeconds);
+            } catch (SQLException | RuntimeException e) {
+                valid = false;
+            }
+            double millis = (System.nanoTime() - start) / 1_000_000.0;
+            if (valid) {
+                replica.latencyMillis = replica.probed ? replica.latencyMillis + SMOOTHING * (millis - replica.latencyMillis) : millis;
+                replica.probed = true;
+            }
+            if (valid != replica.healthy) {
+                log.warn("Read replica {} is {}", replica.key, valid ? "back, routing reads to it" : "failing, reads skip it");
+            }
+            replica.healthy = valid;
+        }
+    }
+
+    @Override
+    public void close() {
+        prober.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    private static class Replica {
+
+        final String key;
+        final HikariDataSource pool;
+        volatile boolean healthy = true;
+        volatile boolean probed;
+        volatile double latencyMillis;
+
+        Replica(String key, HikariDataSource pool) {
+            this.key = key;
+            this.pool = pool;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.util.Locale;
+
+/**
+ * Classes of API routes that are admitted separately, so a burst in one cannot take the
+ * connections another needs. Routes are put in a group with {@link Admission}; without it
+ * GET and HEAD routes are lookups and everything else is a write.
+ */
+public enum RouteGroup {
+
+    /** listings, searches, exports and capacity reports that scan many rows on every call */
+    SEARCH,
+    /** creates, updates, deletes and imports */
+    WRITE,
+    /** stock moves between warehouses */
+    TRANSFER,
+    /** single-row reads, and the ETag-polled product and warehouse pages that mostly end in 304 */
+    LOOKUP;
+
+    /**
+     * Returns the name used in the inventory.admission.* properties and metric tags
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
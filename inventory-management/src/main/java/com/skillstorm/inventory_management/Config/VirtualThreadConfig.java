@@ -0,0 +1,48 @@
+package com.skillstorm.inventory_management.Config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Settings for the virtual profile, which serves requests on virtual threads
+ * (spring.threads.virtual.enabled in application-virtual.properties, Java 21 or newer).
+ * Virtual threads remove the Tomcat thread limit, so the inventory, warehouse and product
+ * endpoints are put behind a JdbcConcurrencyFilter sized to the Hikari pool.
+ * With the replicas profile the default stays the primary pool size: any admitted request may write, and writes
+ * only use the primary. Read-mostly deployments can raise inventory.jdbc-limiter.permits towards the primary plus
+ * replica pool sizes, at the cost of writes queueing inside the primary pool when many arrive together.
+ */
+@Configuration
+@Profile("virtual")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public FilterRegistrationBean<JdbcConcurrencyFilter> jdbcConcurrencyFilter(
+            @Value("${inventory.jdbc-limiter.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${inventory.jdbc-limiter.acquire-timeout:5s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+
+        if (Runtime.version().feature() < 21) {
+            log.warn("The virtual profile is active but Java {} has no virtual threads, requests run on platform threads",
+                    Runtime.version().feature());
+        }
+        FilterRegistrationBean<JdbcConcurrencyFilter> registration =
+                new FilterRegistrationBean<>(new JdbcConcurrencyFilter(permits, acquireTimeout,
+                        List.of(OpenInViewConfig.EVENT_STREAMS), meterRegistry));
+        registration.addUrlPatterns("/inventory/*", "/warehouses/*", "/products/*");
+        log.info("Limiting API requests to {} concurrent database users", permits);
+        return registration;
+    }
+}
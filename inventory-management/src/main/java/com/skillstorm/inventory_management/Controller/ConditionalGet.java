@@ -0,0 +1,57 @@
+package com.skillstorm.inventory_management.Controller;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.skillstorm.inventory_management.Service.ChangeCounters;
+
+/**
+ * Answers polled read endpoints with ETags taken from ChangeCounters.
+ * A request whose If-None-Match still matches gets 304 before the body is loaded,
+ * so unchanged polls never reach the database or the JSON serializer.
+ */
+@Component
+public class ConditionalGet {
+
+    private final ChangeCounters changeCounters;
+    private final CacheControl listCacheControl;
+    private final CacheControl departmentsCacheControl;
+
+    public ConditionalGet(ChangeCounters changeCounters,
+                          @Value("${inventory.http-cache.max-age:0s}") Duration maxAge,
+                          @Value("${inventory.http-cache.departments-max-age:1h}") Duration departmentsMaxAge) {
+        this.changeCounters = changeCounters;
+        this.listCacheControl = cacheControl(maxAge);
+        this.departmentsCacheControl = cacheControl(departmentsMaxAge);
+    }
+
+    /**
+     * Returns 304 if the client already has the current version, otherwise loads the body
+     * @param request current request, read for If-None-Match
+     * @param topic   data set the body is built from
+     * @param body    loads the response body, only called when the client copy is stale
+     * @return response with ETag and Cache-Control headers
+     */
+    public <T> ResponseEntity<T> respond(WebRequest request, ChangeCounters.Topic topic, Supplier<T> body) {
+        String etag = changeCounters.etag(topic);
+        CacheControl cacheControl = topic == ChangeCounters.Topic.DEPARTMENTS ? departmentsCacheControl : listCacheControl;
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+
+    /**
+     * no-cache for a zero max age, so clients revalidate every poll and mostly get 304
+     */
+    private static CacheControl cacheControl(Duration maxAge) {
+        return maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge);
+    }
+}
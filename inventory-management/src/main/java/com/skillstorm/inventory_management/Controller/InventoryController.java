@@ -1,24 +1,44 @@
 package com.skillstorm.inventory_management.Controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.skillstorm.inventory_management.Config.Admission;
+import com.skillstorm.inventory_management.Config.RouteGroup;
+import com.skillstorm.inventory_management.DTO.BatchTransferRequest;
+import com.skillstorm.inventory_management.DTO.BatchTransferResult;
+import com.skillstorm.inventory_management.DTO.BulkImportResult;
+import com.skillstorm.inventory_management.DTO.CursorPage;
 import com.skillstorm.inventory_management.DTO.InventoryCreateRequest;
+import com.skillstorm.inventory_management.DTO.InventoryDeltaRequest;
+import com.skillstorm.inventory_management.DTO.InventoryRow;
 import com.skillstorm.inventory_management.DTO.InventoryUpdateRequest;
 import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Service.InventoryExportService;
+import com.skillstorm.inventory_management.Service.InventoryImportService;
 import com.skillstorm.inventory_management.Service.InventoryService;
+import com.skillstorm.inventory_management.Service.WarehouseService;
 
 @RestController
 @RequestMapping("/inventory") 
@@ -26,9 +46,24 @@ import com.skillstorm.inventory_management.Service.InventoryService;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final InventoryImportService inventoryImportService;
+    private final InventoryExportService inventoryExportService;
+    private final SparseFields sparseFields;
+    private final InventoryEventStream inventoryEventStream;
+    private final WarehouseService warehouseService;
 
-    public InventoryController(InventoryService inventoryService) {
+    public InventoryController(InventoryService inventoryService,
+                               InventoryImportService inventoryImportService,
+                               InventoryExportService inventoryExportService,
+                               SparseFields sparseFields,
+                               InventoryEventStream inventoryEventStream,
+                               WarehouseService warehouseService) {
         this.inventoryService = inventoryService;
+        this.inventoryImportService = inventoryImportService;
+        this.inventoryExportService = inventoryExportService;
+        this.sparseFields = sparseFields;
+        this.inventoryEventStream = inventoryEventStream;
+        this.warehouseService = warehouseService;
     }
 
     /**
@@ -46,44 +81,88 @@ public class InventoryController {
     }
 
     /**
-     * Retrieves all inventory rows within a warehouse
+     * Retrieves inventory rows within a warehouse one keyset page at a time
      * @param warehouseId warehouse id
-     * @return list of inventory entries with HTTP 200
+     * @param size        page size, defaults to the configured page size
+     * @param cursor      nextCursor from the previous page, omitted for the first page
+     * @param sort        id or sku
+     * @param fields      comma separated row properties to return, omitted for all
+     * @return page of flat inventory rows with HTTP 200
      */
     @GetMapping("/warehouse/{warehouseId}")
-    public ResponseEntity<List<Inventory>> findInventoryByWarehouse(@PathVariable int warehouseId) {
-        List<Inventory> entries = inventoryService.findInventoryByWarehouseId(warehouseId);
-        return new ResponseEntity<>(entries, HttpStatus.OK);
+    @Admission(RouteGroup.SEARCH)
+    public ResponseEntity<MappingJacksonValue> findInventoryByWarehouse(
+            @PathVariable int warehouseId,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+
+        CursorPage<InventoryRow> page = inventoryService.findInventoryPageByWarehouseId(warehouseId, size, cursor, sort);
+        return new ResponseEntity<>(sparseFields.select(page, fields, InventoryRow.class), HttpStatus.OK);
+    }
+
+    /**
+     * Pushes the committed changes of a warehouse's inventory as Server-Sent Events
+     * A new stream starts with a ready event whose id marks where it begins; load the listing after it
+     * and apply each change's delta in order. A reconnect with Last-Event-ID (or lastEventId) resumes
+     * after that event, or gets a reset event if the missed events are no longer retained
+     * @param warehouseId warehouse id
+     * @param lastEventId id of the last event received, sent by EventSource on reconnect
+     * @param lastEventIdParam the same id as a query parameter, for the first connection of a page
+     * @return open event stream, or HTTP 404 if the warehouse is not found
+     */
+    @GetMapping(value = "/warehouse/{warehouseId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Admission(value = RouteGroup.LOOKUP, streaming = true)
+    public ResponseEntity<SseEmitter> streamInventoryEvents(
+            @PathVariable int warehouseId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+
+        if (warehouseService.findWarehouseById(warehouseId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = inventoryEventStream.subscribe(warehouseId,
+                lastEventId != null ? lastEventId : lastEventIdParam);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
     }
 
     /**
      * Searches inventory in a warehouse by product name fragment, case insensitive
      * @param warehouseId warehouse id
      * @param q           text query for partial name matching
-     * @return matching inventory entries with HTTP 200
+     * @param fields      comma separated row properties to return, omitted for all
+     * @return matching inventory rows with HTTP 200
      */
     @GetMapping("/warehouse/{warehouseId}/search/name")
-    public ResponseEntity<List<Inventory>> searchByName(
+    @Admission(RouteGroup.SEARCH)
+    public ResponseEntity<MappingJacksonValue> searchByName(
             @PathVariable int warehouseId,
-            @RequestParam("q") String q) {
+            @RequestParam("q") String q,
+            @RequestParam(required = false) String fields) {
 
-        List<Inventory> entries = inventoryService.searchByProductNameInWarehouse(warehouseId, q);
-        return new ResponseEntity<>(entries, HttpStatus.OK);
+        List<InventoryRow> entries = inventoryService.searchByProductNameInWarehouse(warehouseId, q);
+        return new ResponseEntity<>(sparseFields.select(entries, fields, InventoryRow.class), HttpStatus.OK);
     }
 
     /**
      * Searches inventory in a warehouse by SKU fragment, case insensitive
      * @param warehouseId warehouse id
      * @param q           SKU fragment
-     * @return matching inventory entries with HTTP 200
+     * @param fields      comma separated row properties to return, omitted for all
+     * @return matching inventory rows with HTTP 200
      */
     @GetMapping("/warehouse/{warehouseId}/search/sku")
-    public ResponseEntity<List<Inventory>> searchBySku(
+    @Admission(RouteGroup.SEARCH)
+    public ResponseEntity<MappingJacksonValue> searchBySku(
             @PathVariable int warehouseId,
-            @RequestParam("q") String q) {
+            @RequestParam("q") String q,
+            @RequestParam(required = false) String fields) {
 
-        List<Inventory> entries = inventoryService.searchBySkuInWarehouse(warehouseId, q);
-        return new ResponseEntity<>(entries, HttpStatus.OK);
+        List<InventoryRow> entries = inventoryService.searchBySkuInWarehouse(warehouseId, q);
+        return new ResponseEntity<>(sparseFields.select(entries, fields, InventoryRow.class), HttpStatus.OK);
     }
 
     /**
@@ -109,10 +188,62 @@ public class InventoryController {
         return new ResponseEntity<>(created, HttpStatus.CREATED);
     }
 
+    /**
+     * Bulk imports inventory rows into a warehouse from a CSV or NDJSON upload
+     * The body is streamed and written in chunks, lines for existing rows increase their quantity
+     * @param warehouseId warehouse id
+     * @param contentType text/csv or application/x-ndjson
+     * @param body        request body stream
+     * @return import summary with per-line errors with HTTP 200
+     */
+    @PostMapping(value = "/warehouse/{warehouseId}/bulk", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<BulkImportResult> bulkImportInventory(
+            @PathVariable int warehouseId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+
+        BulkImportResult result;
+        if (MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+            result = inventoryImportService.importCsv(warehouseId, body);
+        } else {
+            result = inventoryImportService.importNdjson(warehouseId, body);
+        }
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    /**
+     * Streams every inventory row, or the rows of one warehouse, as NDJSON or CSV
+     * Rows are written while they are read from the database, so the export runs in constant memory
+     * @param warehouseId optional warehouse filter
+     * @param format      ndjson (default) or csv
+     * @return streamed rows with HTTP 200
+     */
+    @GetMapping("/export")
+    @Admission(RouteGroup.SEARCH)
+    public ResponseEntity<StreamingResponseBody> exportInventory(
+            @RequestParam(required = false) Integer warehouseId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported export format " + format + ", expected ndjson or csv");
+        }
+        inventoryExportService.requireWarehouse(warehouseId);
+
+        StreamingResponseBody body = csv
+                ? out -> inventoryExportService.exportCsv(warehouseId, out)
+                : out -> inventoryExportService.exportNdjson(warehouseId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? "text/csv" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inventory-export." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
     /**
      * Fully updates quantity and storage location for an inventory row
      * @param id      inventory id
-     * @param request request body with quantity and storage location
+     * @param request request body with quantity, storage location and optional version
      * @return updated inventory with HTTP 200
      */
     @PutMapping("/{id}")
@@ -123,11 +254,27 @@ public class InventoryController {
         Inventory updated = inventoryService.updateInventory(
                 id,
                 request.getQuantity(),
-                request.getStorageLocation()
+                request.getStorageLocation(),
+                request.getVersion()
         );
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
+    /**
+     * Adds a signed amount to the quantity of an inventory row
+     * @param id      inventory id
+     * @param request request body with the delta
+     * @return updated inventory with HTTP 200
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Inventory> adjustQuantity(
+            @PathVariable int id,
+            @RequestBody InventoryDeltaRequest request) {
+
+        Inventory updated = inventoryService.applyQuantityDelta(id, request.getDelta());
+        return new ResponseEntity<>(updated, HttpStatus.OK);
+    }
+
     /**
      * Deletes an inventory row by id
      * @param id inventory id
@@ -148,6 +295,7 @@ public class InventoryController {
      * @return HTTP 200 on success
      */
     @PostMapping("/{inventoryId}/transfer")
+    @Admission(RouteGroup.TRANSFER)
     public ResponseEntity<Void> transferInventory(
             @PathVariable int inventoryId,
             @RequestParam int fromWarehouse,
@@ -157,4 +305,16 @@ public class InventoryController {
         inventoryService.transferInventory(inventoryId, fromWarehouse, toWarehouse, quantity);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Applies many transfer lines (sku, source, destination, quantity) in one transaction
+     * @param request batch with the lines in the order they should be applied
+     * @return per-line results with HTTP 200, failed lines change nothing
+     */
+    @PostMapping("/transfers")
+    @Admission(RouteGroup.TRANSFER)
+    public ResponseEntity<BatchTransferResult> transferBatch(@RequestBody BatchTransferRequest request) {
+        BatchTransferResult result = inventoryService.transferBatch(request.getLines());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
 }
@@ -0,0 +1,243 @@
+package com.skillstorm.inventory_management.Controller;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.skillstorm.inventory_management.DTO.InventoryEvent;
+import com.skillstorm.inventory_management.Service.InventoryEvents;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Server-Sent Events subscribers of the per-warehouse inventory change streams.
+ * Committed events are offered to a bounded queue per subscriber, which never blocks the committing
+ * thread, and a small sender pool drains each queue onto its connection. A subscriber whose queue
+ * fills up is disconnected; its client reconnects with Last-Event-ID and resumes from the retained history.
+ * Open streams and dropped subscribers are published as inventory.events.* metrics.
+ */
+@Component
+public class InventoryEventStream implements AutoCloseable {
+
+    /** sent instead of the missed events when a client cannot resume, it should reload the listing */
+    static final String RESET = "reset";
+    /** first event of a new stream, its id is the position the stream starts from */
+    static final String READY = "ready";
+
+    private final InventoryEvents inventoryEvents;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final ExecutorService senders;
+    private final Counter droppedCounter;
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    public InventoryEventStream(InventoryEvents inventoryEvents,
+                                @Value("${inventory.events.buffer-size:256}") int bufferSize,
+                                @Value("${inventory.events.timeout:30m}") Duration timeout,
+                                @Value("${inventory.events.sender-threads:4}") int senderThreads,
+                                MeterRegistry meterRegistry) {
+        this.inventoryEvents = inventoryEvents;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.droppedCounter = Counter.builder("inventory.events.dropped")
+                .description("Event subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("inventory.events.subscribers", open, AtomicInteger::get)
+                .description("Open inventory event streams")
+                .register(meterRegistry);
+        inventoryEvents.addListener(this::dispatch);
+    }
+
+    /**
+     * Opens a stream of the changes in one warehouse
+     * @param warehouseId warehouse id
+     * @param lastEventId id of the last event the client received, or null for a new stream
+     * @return emitter for the controller to return
+     */
+    public SseEmitter subscribe(int warehouseId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(warehouseId, emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        subscribers.computeIfAbsent(warehouseId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        open.incrementAndGet();
+
+        // registered first, so events committed from here on are queued and none fall between history and live
+        if (lastEventId == null || lastEventId.isBlank()) {
+            String current = inventoryEvents.currentEventId();
+            subscriber.lastSent = inventoryEvents.parseSequence(current);
+            subscriber.greeting = SseEmitter.event().name(READY).id(current).data("");
+        } else {
+            long sequence = inventoryEvents.parseSequence(lastEventId.trim());
+            List<InventoryEvent> missed = inventoryEvents.eventsAfter(warehouseId, sequence);
+            if (missed == null) {
+                String current = inventoryEvents.currentEventId();
+                subscriber.lastSent = inventoryEvents.parseSequence(current);
+                subscriber.greeting = SseEmitter.event().name(RESET).id(current).data("");
+            } else {
+                subscriber.lastSent = sequence;
+                subscriber.replay = missed;
+            }
+        }
+        subscriber.started.set(true);
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Keeps idle connections open through proxies and notices clients that went away
+     */
+    @Scheduled(fixedDelayString = "${inventory.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Subscriber> warehouseSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : warehouseSubscribers) {
+                subscriber.heartbeat.set(true);
+                subscriber.schedule();
+            }
+        }
+    }
+
+    /**
+     * Completes every open stream and stops the sender pool
+     */
+    @Override
+    public void close() {
+        for (Set<Subscriber> warehouseSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : warehouseSubscribers) {
+                subscriber.emitter.complete();
+                subscriber.close();
+            }
+        }
+        senders.shutdownNow();
+    }
+
+    private void dispatch(InventoryEvent event) {
+        Set<Subscriber> warehouseSubscribers = subscribers.get(event.getWarehouseId());
+        if (warehouseSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : warehouseSubscribers) {
+            if (subscriber.queue.offer(event)) {
+                subscriber.schedule();
+            } else {
+                droppedCounter.increment();
+                subscriber.emitter.complete();
+                subscriber.close();
+            }
+        }
+    }
+
+    /**
+     * One open stream. Only one sender drains it at a time, so events go out in sequence order
+     */
+    private class Subscriber {
+
+        private final int warehouseId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<InventoryEvent> queue;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeat = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // written before the subscriber is started, then only read and written by the draining sender
+        private SseEmitter.SseEventBuilder greeting;
+        private List<InventoryEvent> replay;
+        private long lastSent;
+
+        Subscriber(int warehouseId, SseEmitter emitter) {
+            this.warehouseId = warehouseId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void schedule() {
+            if (!started.get() || closed.get() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (greeting != null) {
+                    emitter.send(greeting);
+                    greeting = null;
+                }
+                if (replay != null) {
+                    for (InventoryEvent event : replay) {
+                        send(event);
+                    }
+                    replay = null;
+                }
+                InventoryEvent event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    send(event);
+                }
+                if (heartbeat.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void send(InventoryEvent event) throws IOException {
+            if (event.getSequence() <= lastSent) {
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(inventoryEvents.eventId(event.getSequence()))
+                    .name(event.getType().name().toLowerCase(Locale.ROOT))
+                    .data(event));
+            lastSent = event.getSequence();
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            Set<Subscriber> warehouseSubscribers = subscribers.get(warehouseId);
+            if (warehouseSubscribers != null) {
+                warehouseSubscribers.remove(this);
+            }
+            open.decrementAndGet();
+            queue.clear();
+        }
+    }
+}
@@ -5,17 +5,25 @@ import java.util.List;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.skillstorm.inventory_management.Config.Admission;
+import com.skillstorm.inventory_management.Config.RouteGroup;
+import com.skillstorm.inventory_management.DTO.ProductAvailability;
 import com.skillstorm.inventory_management.DTO.ProductCreateRequest;
 import com.skillstorm.inventory_management.Model.Department;
 import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Service.ChangeCounters;
+import com.skillstorm.inventory_management.Service.ProductAvailabilityService;
 import com.skillstorm.inventory_management.Service.ProductService;
 
 @RestController
@@ -24,19 +32,37 @@ import com.skillstorm.inventory_management.Service.ProductService;
 public class ProductController {
 
     private final ProductService productService;
+    private final ConditionalGet conditionalGet;
+    private final SparseFields sparseFields;
+    private final ProductAvailabilityService productAvailabilityService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ConditionalGet conditionalGet, SparseFields sparseFields,
+                             ProductAvailabilityService productAvailabilityService) {
         this.productService = productService;
+        this.conditionalGet = conditionalGet;
+        this.sparseFields = sparseFields;
+        this.productAvailabilityService = productAvailabilityService;
     }
 
     /**
-     * Retrieves all products
-     * @return list of products with HTTP 200
+     * Retrieves products one keyset page at a time
+     * @param size   page size, defaults to the configured page size
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param sort   id, sku or name
+     * @param fields comma separated product properties to return, omitted for all
+     * @return page of products with HTTP 200, or HTTP 304 if the If-None-Match ETag is still current
      */
     @GetMapping
-    public ResponseEntity<List<Product>> findAllProducts() {
-        List<Product> products = productService.findAllProducts();
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    @Admission(RouteGroup.LOOKUP)
+    public ResponseEntity<MappingJacksonValue> findAllProducts(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+
+        return conditionalGet.respond(request, ChangeCounters.Topic.CATALOG,
+                () -> sparseFields.select(productService.findProductPage(size, cursor, sort), fields, Product.class));
     }
 
     /**
@@ -67,6 +93,19 @@ public class ProductController {
         return new ResponseEntity<>(product, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves every warehouse holding a product with its quantity and storage location, and the total
+     * Served from a short-lived cache that is dropped whenever the product's inventory changes
+     * @param sku product SKU
+     * @return availability with HTTP 200 or HTTP 404 if the SKU is not found
+     */
+    @GetMapping("/sku/{sku}/availability")
+    public ResponseEntity<ProductAvailability> findProductAvailability(@PathVariable String sku) {
+        return productAvailabilityService.findBySku(sku)
+                .map(availability -> new ResponseEntity<>(availability, HttpStatus.OK))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Creates or retrieves a product by SKU
      * If a product with this SKU already exists, that product is returned
@@ -86,10 +125,11 @@ public class ProductController {
 
     /**
      * Returns all available departments for populating dropdowns
-     * @return list of department enum values with HTTP 200
+     * @return list of department enum values with HTTP 200, or HTTP 304 if the If-None-Match ETag is still current
      */
     @GetMapping("/departments")
-    public ResponseEntity<List<Department>> getDepartments() {
-        return new ResponseEntity<>(Arrays.asList(Department.values()), HttpStatus.OK);
+    public ResponseEntity<List<Department>> getDepartments(WebRequest request) {
+        return conditionalGet.respond(request, ChangeCounters.Topic.DEPARTMENTS,
+                () -> Arrays.asList(Department.values()));
     }
 }
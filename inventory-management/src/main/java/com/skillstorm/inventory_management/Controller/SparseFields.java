@@ -0,0 +1,77 @@
+package com.skillstorm.inventory_management.Controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+/**
+ * Applies the fields parameter of list endpoints, e.g. ?fields=sku,quantity.
+ * Only the items of the response are narrowed: their type must be annotated with @JsonFilter("fields"),
+ * and paging envelopes around them are written in full.
+ */
+@Component
+public class SparseFields {
+
+    public static final String FILTER = "fields";
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Set<String>> propertiesByType = new ConcurrentHashMap<>();
+
+    public SparseFields(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Wraps a response body so that items of the given type only serialize the requested properties
+     * @param body     response body
+     * @param fields   comma separated property names, or null for every property
+     * @param itemType type of the items in the body
+     * @return body ready to return from a controller
+     * @throws IllegalArgumentException if a field is not a property of the item type
+     */
+    public MappingJacksonValue select(Object body, String fields, Class<?> itemType) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (fields == null || fields.isBlank()) {
+            return value;
+        }
+        Set<String> allowed = propertiesByType.computeIfAbsent(itemType, this::serializedProperties);
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown field " + name + ", expected any of " + allowed);
+            }
+            requested.add(name);
+        }
+        if (!requested.isEmpty()) {
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(requested)));
+        }
+        return value;
+    }
+
+    private Set<String> serializedProperties(Class<?> type) {
+        Set<String> names = new TreeSet<>();
+        for (BeanPropertyDefinition property : new ArrayList<>(objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type)).findProperties())) {
+            if (property.couldSerialize()) {
+                names.add(property.getName());
+            }
+        }
+        return names;
+    }
+}
@@ -12,9 +12,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.skillstorm.inventory_management.Config.Admission;
+import com.skillstorm.inventory_management.Config.RouteGroup;
+import com.skillstorm.inventory_management.DTO.CursorPage;
+import com.skillstorm.inventory_management.DTO.LowStockItem;
+import com.skillstorm.inventory_management.DTO.StockThresholdRequest;
+import com.skillstorm.inventory_management.DTO.WarehouseListItem;
+import com.skillstorm.inventory_management.DTO.WarehouseSummary;
+import com.skillstorm.inventory_management.Model.StockThreshold;
 import com.skillstorm.inventory_management.Model.Warehouse;
+import com.skillstorm.inventory_management.Service.ChangeCounters;
+import com.skillstorm.inventory_management.Service.LowStockService;
 import com.skillstorm.inventory_management.Service.WarehouseService;
 
 @RestController
@@ -23,19 +35,57 @@ import com.skillstorm.inventory_management.Service.WarehouseService;
 public class WarehouseController {
 
     private final WarehouseService warehouseService;
+    private final ConditionalGet conditionalGet;
+    private final LowStockService lowStockService;
 
-    public WarehouseController(WarehouseService warehouseService) {
+    public WarehouseController(WarehouseService warehouseService, ConditionalGet conditionalGet,
+                               LowStockService lowStockService) {
         this.warehouseService = warehouseService;
+        this.conditionalGet = conditionalGet;
+        this.lowStockService = lowStockService;
     }
 
     /**
-     * Retrieves all warehouses 
-     * @return list of warehouses with HTTP 200
+     * Retrieves warehouses one keyset page at a time
+     * Items carry no current load, see /{id}/current-load or /summary for the live load
+     * @param size   page size, defaults to the configured page size
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param sort   id or name
+     * @return page of warehouses with HTTP 200, or HTTP 304 if the If-None-Match ETag is still current
      */
     @GetMapping
-    public ResponseEntity<List<Warehouse>> findAllWarehouses() {
-        List<Warehouse> warehouses = warehouseService.findAllWarehouses();
-        return new ResponseEntity<>(warehouses, HttpStatus.OK);
+    @Admission(RouteGroup.LOOKUP)
+    public ResponseEntity<CursorPage<WarehouseListItem>> findAllWarehouses(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            WebRequest request) {
+
+        return conditionalGet.respond(request, ChangeCounters.Topic.WAREHOUSES,
+                () -> warehouseService.findWarehousePage(size, cursor, sort));
+    }
+
+    /**
+     * Capacity summary of every warehouse for dashboards, answered with one aggregate query
+     * @param name           name fragment filter
+     * @param minUtilization lowest utilization in percent
+     * @param maxUtilization highest utilization in percent
+     * @param sort           id, name, utilization, remaining or load
+     * @param direction      asc or desc, e.g. sort=utilization&direction=desc for most full first
+     * @return summaries with HTTP 200
+     */
+    @GetMapping("/summary")
+    @Admission(RouteGroup.SEARCH)
+    public ResponseEntity<List<WarehouseSummary>> findWarehouseSummaries(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Double minUtilization,
+            @RequestParam(required = false) Double maxUtilization,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+
+        List<WarehouseSummary> summaries =
+                warehouseService.findSummaries(name, minUtilization, maxUtilization, sort, direction);
+        return new ResponseEntity<>(summaries, HttpStatus.OK);
     }
 
     /**
@@ -74,13 +124,10 @@ public class WarehouseController {
             @PathVariable int id,
             @RequestBody Warehouse warehouse) {
 
-        Warehouse existing = warehouseService.findWarehouseById(id);
-        if (existing == null) {
+        Warehouse updated = warehouseService.updateWarehouse(id, warehouse);
+        if (updated == null) {
             return ResponseEntity.notFound().build();
         }
-
-        warehouse.setId(id);
-        Warehouse updated = warehouseService.saveWarehouse(warehouse);
         return new ResponseEntity<>(updated, HttpStatus.OK);
     }
 
@@ -101,6 +148,7 @@ public class WarehouseController {
      * @return remaining capacity with HTTP 200
      */
     @GetMapping("/{id}/capacity")
+    @Admission(RouteGroup.SEARCH)
     public ResponseEntity<Integer> getRemainingCapacity(@PathVariable int id) {
         int remaining = warehouseService.getRemainingCapacity(id);
         return new ResponseEntity<>(remaining, HttpStatus.OK);
@@ -116,4 +164,70 @@ public class WarehouseController {
         int load = warehouseService.getCurrentWarehouseLoad(id);
         return new ResponseEntity<>(load, HttpStatus.OK);
     }
+
+    /**
+     * Recomputes the stored load of a warehouse from its inventory rows
+     * @param id warehouse ID
+     * @return rebuilt load with HTTP 200 or HTTP 404 if not found
+     */
+    @PostMapping("/{id}/current-load/rebuild")
+    public ResponseEntity<Integer> rebuildCurrentWarehouseLoad(@PathVariable int id) {
+        if (warehouseService.findWarehouseById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        int load = warehouseService.rebuildCurrentLoad(id);
+        return new ResponseEntity<>(load, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the rows of a warehouse at or below their reorder level, kept in memory as stock changes
+     * @param id warehouse ID
+     * @return low-stock rows with HTTP 200 or HTTP 404 if the warehouse is not found
+     */
+    @GetMapping("/{id}/low-stock")
+    public ResponseEntity<List<LowStockItem>> findLowStock(@PathVariable int id) {
+        if (warehouseService.findWarehouseById(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return new ResponseEntity<>(lowStockService.findLowStock(id), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the reorder thresholds of a warehouse
+     * @param id warehouse ID
+     * @return thresholds with HTTP 200
+     */
+    @GetMapping("/{id}/low-stock/thresholds")
+    public ResponseEntity<List<StockThreshold>> findThresholds(@PathVariable int id) {
+        return new ResponseEntity<>(lowStockService.findThresholds(id), HttpStatus.OK);
+    }
+
+    /**
+     * Sets the reorder level of a SKU or a department in a warehouse, replacing an existing one
+     * @param id      warehouse ID
+     * @param request sku or category, and reorderLevel
+     * @return saved threshold with HTTP 200
+     */
+    @PutMapping("/{id}/low-stock/thresholds")
+    public ResponseEntity<StockThreshold> saveThreshold(
+            @PathVariable int id,
+            @RequestBody StockThresholdRequest request) {
+
+        StockThreshold saved = lowStockService.saveThreshold(id, request);
+        return new ResponseEntity<>(saved, HttpStatus.OK);
+    }
+
+    /**
+     * Deletes a reorder threshold of a warehouse
+     * @param id          warehouse ID
+     * @param thresholdId threshold ID
+     * @return HTTP 204 after deletion or HTTP 404 if not found
+     */
+    @DeleteMapping("/{id}/low-stock/thresholds/{thresholdId}")
+    public ResponseEntity<Void> deleteThreshold(@PathVariable int id, @PathVariable int thresholdId) {
+        if (!lowStockService.deleteThreshold(id, thresholdId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,23 @@
+package com.skillstorm.inventory_management.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO for a batch transfer request, the lines are applied in order in one transaction.
+ */
+public class BatchTransferRequest {
+
+    private List<TransferLine> lines = new ArrayList<>();
+
+    public BatchTransferRequest() {
+    }
+
+    public List<TransferLine> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<TransferLine> lines) {
+        this.lines = lines;
+    }
+}
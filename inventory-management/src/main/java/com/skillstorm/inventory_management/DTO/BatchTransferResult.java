@@ -0,0 +1,50 @@
+package com.skillstorm.inventory_management.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO summarizing a batch transfer with one result per request line.
+ */
+public class BatchTransferResult {
+
+    private int totalLines;
+    private int transferredLines;
+    private int failedLines;
+    private List<TransferLineResult> results = new ArrayList<>();
+
+    public BatchTransferResult() {
+    }
+
+    public int getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(int totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public int getTransferredLines() {
+        return transferredLines;
+    }
+
+    public void setTransferredLines(int transferredLines) {
+        this.transferredLines = transferredLines;
+    }
+
+    public int getFailedLines() {
+        return failedLines;
+    }
+
+    public void setFailedLines(int failedLines) {
+        this.failedLines = failedLines;
+    }
+
+    public List<TransferLineResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<TransferLineResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,44 @@
+package com.skillstorm.inventory_management.DTO;
+
+/**
+ * DTO describing why a single line of a bulk inventory import was rejected.
+ */
+public class BulkImportLineError {
+
+    private int lineNumber;
+    private String sku;
+    private String message;
+
+    public BulkImportLineError() {
+    }
+
+    public BulkImportLineError(int lineNumber, String sku, String message) {
+        this.lineNumber = lineNumber;
+        this.sku = sku;
+        this.message = message;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
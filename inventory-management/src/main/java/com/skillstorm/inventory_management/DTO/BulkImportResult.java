@@ -0,0 +1,50 @@
+package com.skillstorm.inventory_management.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO summarizing a bulk inventory import with a per-line error report.
+ */
+public class BulkImportResult {
+
+    private int totalLines;
+    private int importedLines;
+    private int failedLines;
+    private List<BulkImportLineError> errors = new ArrayList<>();
+
+    public BulkImportResult() {
+    }
+
+    public int getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(int totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public int getImportedLines() {
+        return importedLines;
+    }
+
+    public void setImportedLines(int importedLines) {
+        this.importedLines = importedLines;
+    }
+
+    public int getFailedLines() {
+        return failedLines;
+    }
+
+    public void setFailedLines(int failedLines) {
+        this.failedLines = failedLines;
+    }
+
+    public List<BulkImportLineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BulkImportLineError> errors) {
+        this.errors = errors;
+    }
+}
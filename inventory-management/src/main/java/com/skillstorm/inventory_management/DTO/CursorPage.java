@@ -0,0 +1,38 @@
+package com.skillstorm.inventory_management.DTO;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a keyset paginated listing.
+ * nextCursor is passed back as the cursor parameter to fetch the following page,
+ * and is null on the last page.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,20 @@
+package com.skillstorm.inventory_management.DTO;
+
+/**
+ * DTO for changing an Inventory row's quantity by a signed amount.
+ */
+public class InventoryDeltaRequest {
+
+    private int delta;
+
+    public InventoryDeltaRequest() {
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
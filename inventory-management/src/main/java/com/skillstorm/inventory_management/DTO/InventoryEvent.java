@@ -0,0 +1,116 @@
+package com.skillstorm.inventory_management.DTO;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * DTO for one committed change of an inventory row, pushed to warehouse event streams.
+ * delta is the change of the row's quantity, so a client applies events in id order
+ * to the rows it loaded from the listing. storageLocation is the row's location after the change.
+ */
+public class InventoryEvent {
+
+    public enum Type {
+        /** row added to the warehouse */
+        CREATED,
+        /** quantity or storage location changed */
+        UPDATED,
+        /** row removed, delta takes the quantity to zero */
+        DELETED,
+        /** stock moved to another warehouse */
+        TRANSFER_OUT,
+        /** stock received from another warehouse */
+        TRANSFER_IN
+    }
+
+    private long sequence;
+    private Type type;
+    private int warehouseId;
+    private Integer inventoryId;
+    private int productId;
+    private int delta;
+    private String storageLocation;
+    private Instant occurredAt;
+
+    public InventoryEvent() {
+    }
+
+    public InventoryEvent(Type type, int warehouseId, Integer inventoryId, int productId, int delta, String storageLocation) {
+        this.type = type;
+        this.warehouseId = warehouseId;
+        this.inventoryId = inventoryId;
+        this.productId = productId;
+        this.delta = delta;
+        this.storageLocation = storageLocation;
+        this.occurredAt = Instant.now();
+    }
+
+    /**
+     * Position in the stream, assigned at commit. Sent as the SSE event id instead of in the data
+     */
+    @JsonIgnore
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(int warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Integer getInventoryId() {
+        return inventoryId;
+    }
+
+    public void setInventoryId(Integer inventoryId) {
+        this.inventoryId = inventoryId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+
+    public String getStorageLocation() {
+        return storageLocation;
+    }
+
+    public void setStorageLocation(String storageLocation) {
+        this.storageLocation = storageLocation;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,119 @@
+package com.skillstorm.inventory_management.DTO;
+
+import com.skillstorm.inventory_management.Model.Department;
+
+/**
+ * DTO for one inventory row in a streaming export.
+ * Flat, so each row serializes on its own without loading the warehouse.
+ * The quantity includes journal movements that are not compacted yet.
+ */
+public class InventoryExportRow {
+
+    private int id;
+    private int warehouseId;
+    private int productId;
+    private String sku;
+    private String name;
+    private String description;
+    private Department category;
+    private int quantity;
+    private String storageLocation;
+    private long version;
+
+    public InventoryExportRow() {
+    }
+
+    public InventoryExportRow(int id, int warehouseId, int productId, String sku, String name, String description,
+                              Department category, int quantity, String storageLocation, long version) {
+        this.id = id;
+        this.warehouseId = warehouseId;
+        this.productId = productId;
+        this.sku = sku;
+        this.name = name;
+        this.description = description;
+        this.category = category;
+        this.quantity = quantity;
+        this.storageLocation = storageLocation;
+        this.version = version;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(int warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Department getCategory() {
+        return category;
+    }
+
+    public void setCategory(Department category) {
+        this.category = category;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getStorageLocation() {
+        return storageLocation;
+    }
+
+    public void setStorageLocation(String storageLocation) {
+        this.storageLocation = storageLocation;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
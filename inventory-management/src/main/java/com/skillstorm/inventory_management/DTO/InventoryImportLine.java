@@ -0,0 +1,34 @@
+package com.skillstorm.inventory_management.DTO;
+
+/**
+ * One parsed line of a bulk inventory import, tagged with its line number in the upload.
+ */
+public class InventoryImportLine {
+
+    private int lineNumber;
+    private InventoryCreateRequest request;
+
+    public InventoryImportLine() {
+    }
+
+    public InventoryImportLine(int lineNumber, InventoryCreateRequest request) {
+        this.lineNumber = lineNumber;
+        this.request = request;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public InventoryCreateRequest getRequest() {
+        return request;
+    }
+
+    public void setRequest(InventoryCreateRequest request) {
+        this.request = request;
+    }
+}
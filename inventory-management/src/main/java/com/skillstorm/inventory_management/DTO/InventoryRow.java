@@ -0,0 +1,91 @@
+package com.skillstorm.inventory_management.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.skillstorm.inventory_management.Model.Department;
+
+/**
+ * DTO for one inventory row in listings and searches.
+ * Built directly by a join query, so no Warehouse or Product entities are loaded.
+ * List endpoints can narrow it to the properties named in their fields parameter.
+ */
+@JsonFilter("fields")
+public class InventoryRow {
+
+    private int id;
+    private int productId;
+    private String sku;
+    private String name;
+    private Department category;
+    private int quantity;
+    private String storageLocation;
+
+    public InventoryRow() {
+    }
+
+    public InventoryRow(int id, int productId, String sku, String name, Department category,
+                        int quantity, String storageLocation) {
+        this.id = id;
+        this.productId = productId;
+        this.sku = sku;
+        this.name = name;
+        this.category = category;
+        this.quantity = quantity;
+        this.storageLocation = storageLocation;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Department getCategory() {
+        return category;
+    }
+
+    public void setCategory(Department category) {
+        this.category = category;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getStorageLocation() {
+        return storageLocation;
+    }
+
+    public void setStorageLocation(String storageLocation) {
+        this.storageLocation = storageLocation;
+    }
+}
@@ -2,11 +2,13 @@ package com.skillstorm.inventory_management.DTO;
 
 /**
  * DTO for updating an existing Inventory row's quantity and storage location.
+ * version is optional; when set, the update is rejected if the row has changed since it was read.
  */
 public class InventoryUpdateRequest {
 
     private int quantity;
     private String storageLocation;
+    private Long version;
 
     public InventoryUpdateRequest() {
     }
@@ -26,4 +28,12 @@ public class InventoryUpdateRequest {
     public void setStorageLocation(String storageLocation) {
         this.storageLocation = storageLocation;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,98 @@
+package com.skillstorm.inventory_management.DTO;
+
+import com.skillstorm.inventory_management.Model.Department;
+
+/**
+ * DTO for one inventory row at or below its reorder level.
+ * Built directly by a join query against the stock thresholds.
+ */
+public class LowStockItem {
+
+    private int warehouseId;
+    private int inventoryId;
+    private int productId;
+    private String sku;
+    private String name;
+    private Department category;
+    private int quantity;
+    private int reorderLevel;
+
+    public LowStockItem() {
+    }
+
+    public LowStockItem(int warehouseId, int inventoryId, int productId, String sku, String name,
+                        Department category, int quantity, int reorderLevel) {
+        this.warehouseId = warehouseId;
+        this.inventoryId = inventoryId;
+        this.productId = productId;
+        this.sku = sku;
+        this.name = name;
+        this.category = category;
+        this.quantity = quantity;
+        this.reorderLevel = reorderLevel;
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(int warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public int getInventoryId() {
+        return inventoryId;
+    }
+
+    public void setInventoryId(int inventoryId) {
+        this.inventoryId = inventoryId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Department getCategory() {
+        return category;
+    }
+
+    public void setCategory(Department category) {
+        this.category = category;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public int getReorderLevel() {
+        return reorderLevel;
+    }
+
+    public void setReorderLevel(int reorderLevel) {
+        this.reorderLevel = reorderLevel;
+    }
+}
@@ -0,0 +1,68 @@
+package com.skillstorm.inventory_management.DTO;
+
+import java.util.List;
+
+/**
+ * DTO for where a product is in stock: every warehouse holding a positive quantity and the total across them
+ */
+public class ProductAvailability {
+
+    private int productId;
+    private String sku;
+    private String name;
+    private long totalQuantity;
+    private List<WarehouseAvailability> warehouses;
+
+    public ProductAvailability() {
+    }
+
+    public ProductAvailability(int productId, String sku, String name, List<WarehouseAvailability> warehouses) {
+        this.productId = productId;
+        this.sku = sku;
+        this.name = name;
+        this.warehouses = warehouses;
+        for (WarehouseAvailability warehouse : warehouses) {
+            this.totalQuantity += warehouse.getQuantity();
+        }
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public void setTotalQuantity(long totalQuantity) {
+        this.totalQuantity = totalQuantity;
+    }
+
+    public List<WarehouseAvailability> getWarehouses() {
+        return warehouses;
+    }
+
+    public void setWarehouses(List<WarehouseAvailability> warehouses) {
+        this.warehouses = warehouses;
+    }
+}
@@ -0,0 +1,37 @@
+package com.skillstorm.inventory_management.DTO;
+
+import com.skillstorm.inventory_management.Model.Department;
+
+/**
+ * DTO for setting a reorder level in a warehouse, for one SKU or for a whole department
+ */
+public class StockThresholdRequest {
+
+    private String sku;
+    private Department category;
+    private Integer reorderLevel;
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public Department getCategory() {
+        return category;
+    }
+
+    public void setCategory(Department category) {
+        this.category = category;
+    }
+
+    public Integer getReorderLevel() {
+        return reorderLevel;
+    }
+
+    public void setReorderLevel(Integer reorderLevel) {
+        this.reorderLevel = reorderLevel;
+    }
+}
@@ -0,0 +1,54 @@
+package com.skillstorm.inventory_management.DTO;
+
+/**
+ * DTO for one line of a batch transfer: move quantity of a SKU from one warehouse to another.
+ */
+public class TransferLine {
+
+    private String sku;
+    private int fromWarehouseId;
+    private int toWarehouseId;
+    private int quantity;
+
+    public TransferLine() {
+    }
+
+    public TransferLine(String sku, int fromWarehouseId, int toWarehouseId, int quantity) {
+        this.sku = sku;
+        this.fromWarehouseId = fromWarehouseId;
+        this.toWarehouseId = toWarehouseId;
+        this.quantity = quantity;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public int getFromWarehouseId() {
+        return fromWarehouseId;
+    }
+
+    public void setFromWarehouseId(int fromWarehouseId) {
+        this.fromWarehouseId = fromWarehouseId;
+    }
+
+    public int getToWarehouseId() {
+        return toWarehouseId;
+    }
+
+    public void setToWarehouseId(int toWarehouseId) {
+        this.toWarehouseId = toWarehouseId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
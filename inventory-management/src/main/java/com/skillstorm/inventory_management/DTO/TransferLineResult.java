@@ -0,0 +1,85 @@
+package com.skillstorm.inventory_management.DTO;
+
+/**
+ * DTO describing the outcome of one line of a batch transfer.
+ * lineNumber is the 1 based position of the line in the request.
+ */
+public class TransferLineResult {
+
+    private int lineNumber;
+    private String sku;
+    private int fromWarehouseId;
+    private int toWarehouseId;
+    private int quantity;
+    private boolean transferred;
+    private String message;
+
+    public TransferLineResult() {
+    }
+
+    public TransferLineResult(int lineNumber, TransferLine line, boolean transferred, String message) {
+        this.lineNumber = lineNumber;
+        this.sku = line.getSku();
+        this.fromWarehouseId = line.getFromWarehouseId();
+        this.toWarehouseId = line.getToWarehouseId();
+        this.quantity = line.getQuantity();
+        this.transferred = transferred;
+        this.message = message;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public int getFromWarehouseId() {
+        return fromWarehouseId;
+    }
+
+    public void setFromWarehouseId(int fromWarehouseId) {
+        this.fromWarehouseId = fromWarehouseId;
+    }
+
+    public int getToWarehouseId() {
+        return toWarehouseId;
+    }
+
+    public void setToWarehouseId(int toWarehouseId) {
+        this.toWarehouseId = toWarehouseId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public boolean isTransferred() {
+        return transferred;
+    }
+
+    public void setTransferred(boolean transferred) {
+        this.transferred = transferred;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
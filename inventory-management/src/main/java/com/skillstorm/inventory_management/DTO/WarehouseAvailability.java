@@ -0,0 +1,76 @@
+package com.skillstorm.inventory_management.DTO;
+
+/**
+ * DTO for the stock of one product in one warehouse, part of ProductAvailability.
+ * Built directly by a join query, so no entities are loaded.
+ */
+public class WarehouseAvailability {
+
+    private int warehouseId;
+    private String warehouseName;
+    private String warehouseLocation;
+    private int inventoryId;
+    private int quantity;
+    private String storageLocation;
+
+    public WarehouseAvailability() {
+    }
+
+    public WarehouseAvailability(int warehouseId, String warehouseName, String warehouseLocation,
+                                 int inventoryId, int quantity, String storageLocation) {
+        this.warehouseId = warehouseId;
+        this.warehouseName = warehouseName;
+        this.warehouseLocation = warehouseLocation;
+        this.inventoryId = inventoryId;
+        this.quantity = quantity;
+        this.storageLocation = storageLocation;
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(int warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public String getWarehouseName() {
+        return warehouseName;
+    }
+
+    public void setWarehouseName(String warehouseName) {
+        this.warehouseName = warehouseName;
+    }
+
+    public String getWarehouseLocation() {
+        return warehouseLocation;
+    }
+
+    public void setWarehouseLocation(String warehouseLocation) {
+        this.warehouseLocation = warehouseLocation;
+    }
+
+    public int getInventoryId() {
+        return inventoryId;
+    }
+
+    public void setInventoryId(int inventoryId) {
+        this.inventoryId = inventoryId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getStorageLocation() {
+        return storageLocation;
+    }
+
+    public void setStorageLocation(String storageLocation) {
+        this.storageLocation = storageLocation;
+    }
+}
@@ -0,0 +1,60 @@
+package com.skillstorm.inventory_management.DTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DTO for one warehouse in the paged GET /warehouses listing.
+ * Holds only the fields changed by creating, updating or deleting a warehouse, so the listing ETag
+ * does not have to move with every stock change. The live load is served by /warehouses/{id}/current-load
+ * and /warehouses/summary.
+ */
+public class WarehouseListItem {
+
+    private int id;
+    private String name;
+    private String location;
+    @JsonProperty("max_capacity")
+    private int maxCapacity;
+
+    public WarehouseListItem() {
+    }
+
+    public WarehouseListItem(int id, String name, String location, int maxCapacity) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.maxCapacity = maxCapacity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+}
@@ -0,0 +1,85 @@
+package com.skillstorm.inventory_management.DTO;
+
+/**
+ * DTO for one warehouse in the fleet capacity summary.
+ * Built directly by an aggregate query, remaining capacity and utilization are derived from its columns.
+ */
+public class WarehouseSummary {
+
+    private int id;
+    private String name;
+    private int maxCapacity;
+    private int currentLoad;
+    private int remainingCapacity;
+    private double utilizationPercent;
+    private long skuCount;
+
+    public WarehouseSummary() {
+    }
+
+    public WarehouseSummary(int id, String name, int maxCapacity, int currentLoad, long skuCount) {
+        this.id = id;
+        this.name = name;
+        this.maxCapacity = maxCapacity;
+        this.currentLoad = currentLoad;
+        this.remainingCapacity = Math.max(0, maxCapacity - currentLoad);
+        this.utilizationPercent = maxCapacity <= 0 ? 0 : Math.round(currentLoad * 10_000.0 / maxCapacity) / 100.0;
+        this.skuCount = skuCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    public void setMaxCapacity(int maxCapacity) {
+        this.maxCapacity = maxCapacity;
+    }
+
+    public int getCurrentLoad() {
+        return currentLoad;
+    }
+
+    public void setCurrentLoad(int currentLoad) {
+        this.currentLoad = currentLoad;
+    }
+
+    public int getRemainingCapacity() {
+        return remainingCapacity;
+    }
+
+    public void setRemainingCapacity(int remainingCapacity) {
+        this.remainingCapacity = remainingCapacity;
+    }
+
+    public double getUtilizationPercent() {
+        return utilizationPercent;
+    }
+
+    public void setUtilizationPercent(double utilizationPercent) {
+        this.utilizationPercent = utilizationPercent;
+    }
+
+    public long getSkuCount() {
+        return skuCount;
+    }
+
+    public void setSkuCount(long skuCount) {
+        this.skuCount = skuCount;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Shared version number of one data set behind a cacheable read endpoint.
+ * Every instance bumps it after writes to the data set, so ETags built from it
+ * agree across instances and change when any instance changes the data.
+ * Mapped to the CHANGE_VERSIONS table in the database.
+ */
+package com.skillstorm.inventory_management.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "CHANGE_VERSIONS")
+public class ChangeVersion {
+
+    @Id
+    @Column(length = 32)
+    private String topic;
+
+    @Column(nullable = false)
+    private long version;
+
+    public ChangeVersion() {
+    }
+
+    public ChangeVersion(String topic, long version) {
+        this.topic = topic;
+        this.version = version;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeVersion [topic=" + topic + ", version=" + version + "]";
+    }
+}
@@ -6,44 +6,80 @@
  */
 package com.skillstorm.inventory_management.Model;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(
     name = "INVENTORY",
     uniqueConstraints = {
         @UniqueConstraint(columnNames = { "warehouse_id", "product_id" })
+    },
+    indexes = {
+        @Index(name = "idx_inventory_warehouse_id", columnList = "warehouse_id, inventory_id"),
+        @Index(name = "idx_inventory_product_id", columnList = "product_id, warehouse_id")
     }
 )
 public class Inventory {
 
     @Id
     @Column(name = "inventory_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_seq")
+    @SequenceGenerator(name = "inventory_seq", sequenceName = "inventory_seq", allocationSize = 50)
     private int id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "warehouse_id", nullable = false)
     private Warehouse warehouse;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    /**
+     * Quantity folded in by the compactor. Clients only see quantity plus pendingQuantity, as quantity
+     */
+    @JsonIgnore
     @Column(nullable = false)
     private int quantity;
 
+    /**
+     * Sum of the journal movements not yet compacted into quantity, loaded by InventoryJournal.withPending
+     */
+    @Transient
+    @JsonIgnore
+    private int pendingQuantity;
+
     @Column(name = "storage_location")
     private String storageLocation;
 
+    /**
+     * Optimistic lock version, incremented by every write to the row and by every
+     * withdrawal, which locks the row with a forced increment before it journals a negative delta
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     public Inventory() {
     }
 
@@ -94,6 +130,22 @@ public class Inventory {
         this.quantity = quantity;
     }
 
+    public int getPendingQuantity() {
+        return pendingQuantity;
+    }
+
+    public void setPendingQuantity(int pendingQuantity) {
+        this.pendingQuantity = pendingQuantity;
+    }
+
+    /**
+     * Quantity including journal movements that are not compacted yet
+     */
+    @JsonProperty(value = "quantity", access = JsonProperty.Access.READ_ONLY)
+    public int getAvailableQuantity() {
+        return quantity + pendingQuantity;
+    }
+
     public String getStorageLocation() {
         return storageLocation;
     }
@@ -102,53 +154,38 @@ public class Inventory {
         this.storageLocation = storageLocation;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Identity is the primary key. Unsaved rows are only equal to themselves,
+     * and the hash code is constant so it does not change when the row is persisted.
+     * Associations are left out so comparing rows never loads a warehouse or product.
+     */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + id;
-        result = prime * result + ((warehouse == null) ? 0 : warehouse.hashCode());
-        result = prime * result + ((product == null) ? 0 : product.hashCode());
-        result = prime * result + quantity;
-        result = prime * result + ((storageLocation == null) ? 0 : storageLocation.hashCode());
-        return result;
+        return Inventory.class.hashCode();
     }
 
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
+        if (!(obj instanceof Inventory))
             return false;
         Inventory other = (Inventory) obj;
-        if (id != other.id)
-            return false;
-        if (warehouse == null) {
-            if (other.warehouse != null)
-                return false;
-        } else if (!warehouse.equals(other.warehouse))
-            return false;
-        if (product == null) {
-            if (other.product != null)
-                return false;
-        } else if (!product.equals(other.product))
-            return false;
-        if (quantity != other.quantity)
-            return false;
-        if (storageLocation == null) {
-            if (other.storageLocation != null)
-                return false;
-        } else if (!storageLocation.equals(other.storageLocation))
-            return false;
-        return true;
+        return id != 0 && id == other.getId();
     }
 
     @Override
     public String toString() {
-        return "Inventory [id=" + id + ", warehouse=" + warehouse + ", product=" + product + ", quantity=" + quantity
-                + ", storageLocation=" + storageLocation + "]";
+        return "Inventory [id=" + id + ", quantity=" + quantity + ", storageLocation=" + storageLocation
+                + ", version=" + version + "]";
     }
     
 }
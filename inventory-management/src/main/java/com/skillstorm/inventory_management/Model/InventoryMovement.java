@@ -0,0 +1,131 @@
+/**
+ * One entry of the append-only inventory journal.
+ * Records a signed quantity change of a product in a warehouse, why it happened and when.
+ * Entries are written instead of updating the INVENTORY row and folded into
+ * Inventory.quantity later by the compactor, which only flips the applied flag.
+ * Mapped to the INVENTORY_MOVEMENTS table in the database.
+ */
+package com.skillstorm.inventory_management.Model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(
+    name = "INVENTORY_MOVEMENTS",
+    indexes = {
+        @Index(name = "idx_movements_pending", columnList = "applied, movement_id"),
+        @Index(name = "idx_movements_stock", columnList = "warehouse_id, product_id, applied")
+    }
+)
+public class InventoryMovement {
+
+    @Id
+    @Column(name = "movement_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_movements_seq")
+    @SequenceGenerator(name = "inventory_movements_seq", sequenceName = "inventory_movements_seq", allocationSize = 50)
+    private long id;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private int warehouseId;
+
+    @Column(name = "product_id", nullable = false)
+    private int productId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MovementReason reason;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private boolean applied;
+
+    public InventoryMovement() {
+    }
+
+    public InventoryMovement(int warehouseId, int productId, int delta, MovementReason reason, boolean applied) {
+        this.warehouseId = warehouseId;
+        this.productId = productId;
+        this.delta = delta;
+        this.reason = reason;
+        this.applied = applied;
+        this.createdAt = Instant.now();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(int warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    public void setProductId(int productId) {
+        this.productId = productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+
+    public MovementReason getReason() {
+        return reason;
+    }
+
+    public void setReason(MovementReason reason) {
+        this.reason = reason;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryMovement [id=" + id + ", warehouseId=" + warehouseId + ", productId=" + productId
+                + ", delta=" + delta + ", reason=" + reason + ", createdAt=" + createdAt + ", applied=" + applied + "]";
+    }
+}
@@ -0,0 +1,10 @@
+package com.skillstorm.inventory_management.Model;
+
+public enum MovementReason {
+    RECEIPT,
+    IMPORT,
+    ADJUSTMENT,
+    TRANSFER_OUT,
+    TRANSFER_IN,
+    REMOVAL
+}
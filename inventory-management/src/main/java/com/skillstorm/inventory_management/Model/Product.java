@@ -2,12 +2,16 @@
  * Represents a catalog product that can be stored in one or more warehouses.
  * Product data is defined once per SKU.
  * Mapped to the PRODUCTS table in the database.
+ * The product list endpoint can narrow it to the properties named in its fields parameter.
  */
 package com.skillstorm.inventory_management.Model;
 
+import java.util.Objects;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -16,16 +20,26 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "PRODUCTS")
+@JsonFilter("fields")
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
+@Table(
+    name = "PRODUCTS",
+    indexes = {
+        @Index(name = "idx_products_name", columnList = "product_name, id")
+    }
+)
 public class Product {
 
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private int id;
 
     @Column(name = "sku", nullable = false, unique = true)
@@ -111,62 +125,30 @@ public class Product {
         this.inventoryEntries = inventoryEntries;
     }
 
+    /**
+     * Identity is the SKU, the natural key, so a product is equal to itself
+     * before and after it is saved and across persistence contexts.
+     * Getters are used on the other side because it may be a lazy proxy.
+     */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + id;
-        result = prime * result + ((sku == null) ? 0 : sku.hashCode());
-        result = prime * result + ((name == null) ? 0 : name.hashCode());
-        result = prime * result + ((description == null) ? 0 : description.hashCode());
-        result = prime * result + ((category == null) ? 0 : category.hashCode());
-        result = prime * result + ((inventoryEntries == null) ? 0 : inventoryEntries.hashCode());
-        return result;
+        return Objects.hashCode(sku);
     }
 
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
+        if (!(obj instanceof Product))
             return false;
         Product other = (Product) obj;
-        if (id != other.id)
-            return false;
-        if (sku == null) {
-            if (other.sku != null)
-                return false;
-        } else if (!sku.equals(other.sku))
-            return false;
-        if (name == null) {
-            if (other.name != null)
-                return false;
-        } else if (!name.equals(other.name))
-            return false;
-        if (description == null) {
-            if (other.description != null)
-                return false;
-        } else if (!description.equals(other.description))
-            return false;
-        if (category == null) {
-            if (other.category != null)
-                return false;
-        } else if (!category.equals(other.category))
-            return false;
-        if (inventoryEntries == null) {
-            if (other.inventoryEntries != null)
-                return false;
-        } else if (!inventoryEntries.equals(other.inventoryEntries))
-            return false;
-        return true;
+        return sku != null && sku.equals(other.getSku());
     }
 
     @Override
     public String toString() {
         return "Product [id=" + id + ", sku=" + sku + ", name=" + name + ", description=" + description + ", category="
-                + category + ", inventoryEntries=" + inventoryEntries + "]";
+                + category + "]";
     }
 
 }
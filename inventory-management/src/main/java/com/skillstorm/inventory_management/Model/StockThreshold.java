@@ -0,0 +1,105 @@
+/**
+ * Reorder level for a product, or for every product of a department, in one warehouse.
+ * A row is low on stock once its quantity is at or below the level. A product rule
+ * takes precedence over the rule for the product's department in the same warehouse.
+ * Mapped to the STOCK_THRESHOLDS table in the database.
+ */
+package com.skillstorm.inventory_management.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+@Entity
+@Table(
+    name = "STOCK_THRESHOLDS",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_thresholds_rule", columnNames = { "warehouse_id", "product_id", "category" })
+    }
+)
+public class StockThreshold {
+
+    @Id
+    @Column(name = "threshold_id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_thresholds_seq")
+    @SequenceGenerator(name = "stock_thresholds_seq", sequenceName = "stock_thresholds_seq", allocationSize = 50)
+    private int id;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private int warehouseId;
+
+    /** product the rule applies to, null for a department rule */
+    @Column(name = "product_id")
+    private Integer productId;
+
+    /** department the rule applies to, null for a product rule */
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Department category;
+
+    @Column(name = "reorder_level", nullable = false)
+    private int reorderLevel;
+
+    public StockThreshold() {
+    }
+
+    public StockThreshold(int warehouseId, Integer productId, Department category, int reorderLevel) {
+        this.warehouseId = warehouseId;
+        this.productId = productId;
+        this.category = category;
+        this.reorderLevel = reorderLevel;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(int warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public Integer getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Integer productId) {
+        this.productId = productId;
+    }
+
+    public Department getCategory() {
+        return category;
+    }
+
+    public void setCategory(Department category) {
+        this.category = category;
+    }
+
+    public int getReorderLevel() {
+        return reorderLevel;
+    }
+
+    public void setReorderLevel(int reorderLevel) {
+        this.reorderLevel = reorderLevel;
+    }
+
+    @Override
+    public String toString() {
+        return "StockThreshold [id=" + id + ", warehouseId=" + warehouseId + ", productId=" + productId
+                + ", category=" + category + ", reorderLevel=" + reorderLevel + "]";
+    }
+}
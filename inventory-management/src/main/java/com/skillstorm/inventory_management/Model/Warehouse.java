@@ -7,7 +7,12 @@ package com.skillstorm.inventory_management.Model;
 
 import java.util.Set;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -15,15 +20,18 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 @Table(name = "WAREHOUSES")
 public class Warehouse {
 
     @Id
     @Column
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouses_seq")
+    @SequenceGenerator(name = "warehouses_seq", sequenceName = "warehouses_seq", allocationSize = 50)
     private int id;
 
     @Column(name = "warehouse_name")
@@ -35,6 +43,23 @@ public class Warehouse {
     @Column(name = "max_capacity")
     private int max_capacity;
 
+    /**
+     * Running total of inventory quantity stored in this warehouse, plus the capacity handed to its load stripes.
+     * Maintained by WarehouseService through WarehouseRepository.adjustCurrentLoad,
+     * never written by a regular entity save, so a PUT of the warehouse cannot reset it.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @ColumnDefault("0")
+    @Column(name = "current_load", nullable = false, insertable = false, updatable = false)
+    private int currentLoad;
+
+    /**
+     * Capacity counted in current_load but still parked in WarehouseLoadStripe rows, read with the warehouse
+     */
+    @JsonIgnore
+    @Formula("(select coalesce(sum(s.allowance), 0) from WAREHOUSE_LOAD_STRIPES s where s.warehouse_id = id)")
+    private int stripeAllowance;
+
     /**
      * All inventory rows for this warehouse.
      * One warehouse can have many inventory entries.
@@ -93,6 +118,18 @@ public class Warehouse {
         this.max_capacity = max_capacity;
     }
 
+    /**
+     * Quantity stored in the warehouse, without the capacity parked in its load stripes
+     */
+    public int getCurrentLoad() {
+        return currentLoad - stripeAllowance;
+    }
+
+    public void setCurrentLoad(int currentLoad) {
+        this.currentLoad = currentLoad;
+        this.stripeAllowance = 0;
+    }
+
     public Set<Inventory> getInventoryEntries() {
         return inventoryEntries;
     }
@@ -101,53 +138,28 @@ public class Warehouse {
         this.inventoryEntries = inventoryEntries;
     }
 
+    /**
+     * Identity is the primary key, see Inventory.equals
+     */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + id;
-        result = prime * result + ((name == null) ? 0 : name.hashCode());
-        result = prime * result + ((location == null) ? 0 : location.hashCode());
-        result = prime * result + max_capacity;
-        result = prime * result + ((inventoryEntries == null) ? 0 : inventoryEntries.hashCode());
-        return result;
+        return Warehouse.class.hashCode();
     }
 
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
+        if (!(obj instanceof Warehouse))
             return false;
         Warehouse other = (Warehouse) obj;
-        if (id != other.id)
-            return false;
-        if (name == null) {
-            if (other.name != null)
-                return false;
-        } else if (!name.equals(other.name))
-            return false;
-        if (location == null) {
-            if (other.location != null)
-                return false;
-        } else if (!location.equals(other.location))
-            return false;
-        if (max_capacity != other.max_capacity)
-            return false;
-        if (inventoryEntries == null) {
-            if (other.inventoryEntries != null)
-                return false;
-        } else if (!inventoryEntries.equals(other.inventoryEntries))
-            return false;
-        return true;
+        return id != 0 && id == other.getId();
     }
 
     @Override
     public String toString() {
         return "Warehouse [id=" + id + ", name=" + name + ", location=" + location + ", max_capacity=" + max_capacity
-                + ", inventoryEntries=" + inventoryEntries + "]";
+                + ", currentLoad=" + getCurrentLoad() + "]";
     }
 
 }
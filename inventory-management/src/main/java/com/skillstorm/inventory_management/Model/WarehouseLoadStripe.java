@@ -0,0 +1,81 @@
+/**
+ * One stripe of warehouse capacity handed out ahead of time.
+ * The allowance is already counted in the warehouse's current_load but not used by any inventory yet,
+ * so receipts take capacity from a stripe row instead of locking the warehouse row.
+ * A warehouse has a few stripes, chosen at random per write to spread the row locks.
+ * Mapped to the WAREHOUSE_LOAD_STRIPES table in the database.
+ */
+package com.skillstorm.inventory_management.Model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(
+    name = "WAREHOUSE_LOAD_STRIPES",
+    indexes = @Index(name = "idx_load_stripes_warehouse", columnList = "warehouse_id, stripe_id")
+)
+public class WarehouseLoadStripe {
+
+    /** warehouse id in the high 32 bits and stripe number in the low ones, see id() */
+    @Id
+    @Column(name = "stripe_id")
+    private long id;
+
+    @Column(name = "warehouse_id", nullable = false)
+    private int warehouseId;
+
+    @Column(nullable = false)
+    private int allowance;
+
+    public WarehouseLoadStripe() {
+    }
+
+    public WarehouseLoadStripe(int warehouseId, int stripe, int allowance) {
+        this.id = id(warehouseId, stripe);
+        this.warehouseId = warehouseId;
+        this.allowance = allowance;
+    }
+
+    /**
+     * Primary key of a stripe, so every stripe row can be addressed without reading it first
+     * @param warehouseId warehouse id
+     * @param stripe      stripe number
+     * @return stripe id
+     */
+    public static long id(int warehouseId, int stripe) {
+        return ((long) warehouseId << 32) | (stripe & 0xffffffffL);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(int warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public int getAllowance() {
+        return allowance;
+    }
+
+    public void setAllowance(int allowance) {
+        this.allowance = allowance;
+    }
+
+    @Override
+    public String toString() {
+        return "WarehouseLoadStripe [id=" + id + ", warehouseId=" + warehouseId + ", allowance=" + allowance + "]";
+    }
+}
@@ -0,0 +1,21 @@
+package com.skillstorm.inventory_management.Repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.skillstorm.inventory_management.Model.ChangeVersion;
+
+public interface ChangeVersionRepository extends JpaRepository<ChangeVersion, String> {
+
+    /**
+     * Moves the shared version of each topic one step
+     * @return number of topics bumped
+     */
+    @Modifying
+    @Query("update ChangeVersion v set v.version = v.version + 1 where v.topic in :topics")
+    int bump(@Param("topics") Collection<String> topics);
+}
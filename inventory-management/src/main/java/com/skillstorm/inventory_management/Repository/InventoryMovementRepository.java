@@ -0,0 +1,66 @@
+package com.skillstorm.inventory_management.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.skillstorm.inventory_management.Model.InventoryMovement;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    /**
+     * Oldest movements not yet compacted
+     */
+    @Query("select m from InventoryMovement m where m.applied = false order by m.id")
+    List<InventoryMovement> findPending(Limit limit);
+
+    @Query("""
+            select m from InventoryMovement m
+            where m.applied = false and m.warehouseId = :warehouseId and m.productId = :productId
+            """)
+    List<InventoryMovement> findPendingFor(@Param("warehouseId") int warehouseId, @Param("productId") int productId);
+
+    /**
+     * Pending movements for every combination of the given warehouses and products
+     */
+    @Query("""
+            select m from InventoryMovement m
+            where m.applied = false and m.warehouseId in :warehouseIds and m.productId in :productIds
+            """)
+    List<InventoryMovement> findPendingFor(
+            @Param("warehouseIds") Collection<Integer> warehouseIds,
+            @Param("productIds") Collection<Integer> productIds
+    );
+
+    @Query("""
+            select coalesce(sum(m.delta), 0) from InventoryMovement m
+            where m.applied = false and m.warehouseId = :warehouseId and m.productId = :productId
+            """)
+    long sumPending(@Param("warehouseId") int warehouseId, @Param("productId") int productId);
+
+    /**
+     * Pending totals as [warehouseId, productId, sum of delta] for every combination of the given ids that has any
+     */
+    @Query("""
+            select m.warehouseId, m.productId, sum(m.delta) from InventoryMovement m
+            where m.applied = false and m.warehouseId in :warehouseIds and m.productId in :productIds
+            group by m.warehouseId, m.productId
+            """)
+    List<Object[]> sumPendingFor(
+            @Param("warehouseIds") Collection<Integer> warehouseIds,
+            @Param("productIds") Collection<Integer> productIds
+    );
+
+    /**
+     * Marks movements as compacted
+     * @return number of movements that were still pending
+     */
+    @Modifying
+    @Query("update InventoryMovement m set m.applied = true where m.id in :ids and m.applied = false")
+    int markApplied(@Param("ids") Collection<Long> ids);
+}
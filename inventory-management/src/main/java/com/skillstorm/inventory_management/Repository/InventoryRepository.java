@@ -3,28 +3,199 @@
  */
 package com.skillstorm.inventory_management.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.skillstorm.inventory_management.DTO.InventoryRow;
+import com.skillstorm.inventory_management.DTO.WarehouseAvailability;
 import com.skillstorm.inventory_management.Model.Inventory;
 import com.skillstorm.inventory_management.Model.Product;
 import com.skillstorm.inventory_management.Model.Warehouse;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface InventoryRepository extends JpaRepository<Inventory, Integer> {
 
+    /**
+     * Single row read for the inventory endpoints, fetches warehouse and product in the same select
+     */
+    @Override
+    @EntityGraph(attributePaths = { "warehouse", "product" })
+    Optional<Inventory> findById(Integer id);
+
+    /**
+     * Single row read for writes that change the warehouse load, which stays lazy so it is read after the change
+     */
+    @EntityGraph(attributePaths = { "product" })
+    @Query("select i from Inventory i where i.id = :id")
+    Optional<Inventory> findWithProductById(@Param("id") int id);
+
+    @EntityGraph(attributePaths = { "product" })
     List<Inventory> findByWarehouse(Warehouse warehouse);
 
     Optional<Inventory> findByWarehouseAndProduct(Warehouse warehouse, Product product);
 
-    List<Inventory> findByWarehouseAndProduct_NameContainingIgnoreCase(
-            Warehouse warehouse,
-            String nameFragment
+    /**
+     * Select clause shared by the listing queries, one flat InventoryRow per inventory row
+     * The quantity includes the journal movements that are not compacted yet
+     */
+    String ROW_SELECT = """
+            select new com.skillstorm.inventory_management.DTO.InventoryRow(
+                i.id, p.id, p.sku, p.name, p.category,
+                cast(i.quantity + (select coalesce(sum(m.delta), 0) from InventoryMovement m
+                    where m.applied = false and m.warehouseId = i.warehouse.id and m.productId = p.id) as Integer),
+                i.storageLocation)
+            from Inventory i join i.product p
+            """;
+
+    @Query(ROW_SELECT + "where i.warehouse.id = :warehouseId order by i.id")
+    List<InventoryRow> findRowsByWarehouse(@Param("warehouseId") int warehouseId);
+
+    /**
+     * Rows whose product name contains the fragment, case insensitive
+     * @param fragment search text with LIKE wildcards escaped by a backslash
+     */
+    @Query(ROW_SELECT + "where i.warehouse.id = :warehouseId and upper(p.name) like upper(concat('%', :fragment, '%')) escape '\\'")
+    List<InventoryRow> findRowsByWarehouseAndNameContaining(
+            @Param("warehouseId") int warehouseId,
+            @Param("fragment") String fragment
+    );
+
+    /**
+     * Rows whose SKU contains the fragment, case insensitive
+     * @param fragment search text with LIKE wildcards escaped by a backslash
+     */
+    @Query(ROW_SELECT + "where i.warehouse.id = :warehouseId and upper(p.sku) like upper(concat('%', :fragment, '%')) escape '\\'")
+    List<InventoryRow> findRowsByWarehouseAndSkuContaining(
+            @Param("warehouseId") int warehouseId,
+            @Param("fragment") String fragment
+    );
+
+    @Query("select i.product.id from Inventory i where i.warehouse.id = :warehouseId")
+    List<Integer> findProductIdsByWarehouse(@Param("warehouseId") int warehouseId);
+
+    @Query(ROW_SELECT + "where i.warehouse.id = :warehouseId and p.id in :productIds")
+    List<InventoryRow> findRowsByWarehouseAndProductIds(
+            @Param("warehouseId") int warehouseId,
+            @Param("productIds") Collection<Integer> productIds
     );
 
-    List<Inventory> findByWarehouseAndProduct_SkuContainingIgnoreCase(
-            Warehouse warehouse,
-            String skuFragment
+    @Query(ROW_SELECT + "where i.warehouse.id = :warehouseId order by i.id")
+    List<InventoryRow> findRowPageByWarehouseOrderById(@Param("warehouseId") int warehouseId, Limit limit);
+
+    @Query(ROW_SELECT + "where i.warehouse.id = :warehouseId and i.id > :id order by i.id")
+    List<InventoryRow> findRowPageByWarehouseOrderByIdAfter(
+            @Param("warehouseId") int warehouseId,
+            @Param("id") int id,
+            Limit limit
     );
-}
\ No newline at end of file
+
+    @Query(ROW_SELECT + "where i.warehouse.id = :warehouseId order by p.sku, i.id")
+    List<InventoryRow> findRowPageByWarehouseOrderBySku(@Param("warehouseId") int warehouseId, Limit limit);
+
+    @Query(ROW_SELECT + """
+            where i.warehouse.id = :warehouseId and (p.sku > :sku or (p.sku = :sku and i.id > :id))
+            order by p.sku, i.id
+            """)
+    List<InventoryRow> findRowPageByWarehouseOrderBySkuAfter(
+            @Param("warehouseId") int warehouseId,
+            @Param("sku") String sku,
+            @Param("id") int id,
+            Limit limit
+    );
+
+    /**
+     * Warehouses holding a positive quantity of one product, read through idx_inventory_product_id
+     * The quantity includes the journal movements that are not compacted yet
+     */
+    @Query("""
+            select new com.skillstorm.inventory_management.DTO.WarehouseAvailability(
+                w.id, w.name, w.location, i.id,
+                cast(i.quantity + (select coalesce(sum(m.delta), 0) from InventoryMovement m
+                    where m.applied = false and m.warehouseId = w.id and m.productId = i.product.id) as Integer),
+                i.storageLocation)
+            from Inventory i join i.warehouse w
+            where i.product.id = :productId
+                and i.quantity + (select coalesce(sum(m.delta), 0) from InventoryMovement m
+                    where m.applied = false and m.warehouseId = w.id and m.productId = i.product.id) > 0
+            order by w.id
+            """)
+    List<WarehouseAvailability> findAvailabilityByProductId(@Param("productId") int productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Inventory i where i.id = :id")
+    Optional<Inventory> findByIdForUpdate(@Param("id") int id);
+
+    /**
+     * Locks a row before stock is taken out of it and increments its version straight away,
+     * so a concurrent full replace of the row fails its version check and retries
+     */
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("select i from Inventory i where i.id = :id")
+    Optional<Inventory> findByIdForWithdrawal(@Param("id") int id);
+
+    /**
+     * Locks every existing row for the given products in the given warehouses,
+     * in ascending warehouse id then product id order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select i from Inventory i
+            where i.warehouse.id in :warehouseIds and i.product.id in :productIds
+            order by i.warehouse.id, i.product.id
+            """)
+    List<Inventory> findByWarehouseIdsAndProductIdsForUpdate(
+            @Param("warehouseIds") Collection<Integer> warehouseIds,
+            @Param("productIds") Collection<Integer> productIds
+    );
+
+    /**
+     * Same rows and order as findByWarehouseIdsAndProductIdsForUpdate, with the versions incremented
+     * like findByIdForWithdrawal
+     */
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("""
+            select i from Inventory i
+            where i.warehouse.id in :warehouseIds and i.product.id in :productIds
+            order by i.warehouse.id, i.product.id
+            """)
+    List<Inventory> findByWarehouseIdsAndProductIdsForWithdrawal(
+            @Param("warehouseIds") Collection<Integer> warehouseIds,
+            @Param("productIds") Collection<Integer> productIds
+    );
+
+    /**
+     * Streams inventory rows in id order with their product and pending journal quantity, for exports.
+     * Rows come through a JDBC cursor with a bounded fetch size, so the caller must consume the stream
+     * inside a transaction and close it
+     * @param warehouseId warehouse id, or null for every warehouse
+     * @return stream of [Inventory, Integer pending quantity]
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select i, cast((select coalesce(sum(m.delta), 0) from InventoryMovement m
+                where m.applied = false and m.warehouseId = i.warehouse.id and m.productId = p.id) as Integer)
+            from Inventory i join fetch i.product p
+            where :warehouseId is null or i.warehouse.id = :warehouseId
+            order by i.id
+            """)
+    Stream<Object[]> streamForExport(@Param("warehouseId") Integer warehouseId);
+
+    @Query("select i.product from Inventory i where i.id = :id")
+    Optional<Product> findProductByInventoryId(@Param("id") int id);
+}
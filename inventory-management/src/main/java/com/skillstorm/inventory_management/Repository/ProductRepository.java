@@ -3,12 +3,48 @@
  */
 package com.skillstorm.inventory_management.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.skillstorm.inventory_management.Model.Product;
 
 public interface ProductRepository extends JpaRepository<Product, Integer>{
     Optional<Product> findBySkuIgnoreCase(String sku);
+
+    /**
+     * Resolves many SKUs in one query
+     * @param upperSkus SKUs already trimmed and upper cased
+     */
+    @Query("select p from Product p where upper(p.sku) in :upperSkus")
+    List<Product> findBySkuUpperIn(@Param("upperSkus") Collection<String> upperSkus);
+
+    @Query("select p from Product p order by p.id")
+    List<Product> findPageOrderById(Limit limit);
+
+    @Query("select p from Product p where p.id > :id order by p.id")
+    List<Product> findPageOrderByIdAfter(@Param("id") int id, Limit limit);
+
+    @Query("select p from Product p order by p.sku, p.id")
+    List<Product> findPageOrderBySku(Limit limit);
+
+    @Query("select p from Product p where p.sku > :sku or (p.sku = :sku and p.id > :id) order by p.sku, p.id")
+    List<Product> findPageOrderBySkuAfter(@Param("sku") String sku, @Param("id") int id, Limit limit);
+
+    @Query("select p from Product p order by p.name, p.id")
+    List<Product> findPageOrderByName(Limit limit);
+
+    @Query("select p from Product p where p.name > :name or (p.name = :name and p.id > :id) order by p.name, p.id")
+    List<Product> findPageOrderByNameAfter(@Param("name") String name, @Param("id") int id, Limit limit);
+
+    /**
+     * Loads only the columns the search index needs, as [id, sku, name] rows
+     */
+    @Query("select p.id, p.sku, p.name from Product p")
+    List<Object[]> findAllSearchFields();
 }
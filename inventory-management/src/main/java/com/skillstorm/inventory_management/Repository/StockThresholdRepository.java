@@ -0,0 +1,54 @@
+package com.skillstorm.inventory_management.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.skillstorm.inventory_management.DTO.LowStockItem;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.StockThreshold;
+
+public interface StockThresholdRepository extends JpaRepository<StockThreshold, Integer> {
+
+    List<StockThreshold> findByWarehouseIdOrderById(int warehouseId);
+
+    Optional<StockThreshold> findByWarehouseIdAndProductId(int warehouseId, int productId);
+
+    Optional<StockThreshold> findByWarehouseIdAndProductIdIsNullAndCategory(int warehouseId, Department category);
+
+    boolean existsByWarehouseId(int warehouseId);
+
+    @Query("select distinct t.warehouseId from StockThreshold t")
+    List<Integer> findWarehouseIds();
+
+    /**
+     * Rows at or below their reorder level, the product rule first and the department rule otherwise
+     * The quantity includes the journal movements that are not compacted yet
+     */
+    String LOW_STOCK_SELECT = """
+            select new com.skillstorm.inventory_management.DTO.LowStockItem(
+                i.warehouse.id, i.id, p.id, p.sku, p.name, p.category,
+                cast(i.quantity + (select coalesce(sum(m.delta), 0) from InventoryMovement m
+                    where m.applied = false and m.warehouseId = i.warehouse.id and m.productId = p.id) as Integer),
+                coalesce(tp.reorderLevel, tc.reorderLevel))
+            from Inventory i join i.product p
+            left join StockThreshold tp on tp.warehouseId = i.warehouse.id and tp.productId = p.id
+            left join StockThreshold tc on tc.warehouseId = i.warehouse.id and tc.productId is null and tc.category = p.category
+            where i.quantity + (select coalesce(sum(m.delta), 0) from InventoryMovement m
+                    where m.applied = false and m.warehouseId = i.warehouse.id and m.productId = p.id)
+                <= coalesce(tp.reorderLevel, tc.reorderLevel)
+            """;
+
+    @Query(LOW_STOCK_SELECT + "and i.warehouse.id = :warehouseId")
+    List<LowStockItem> findLowStock(@Param("warehouseId") int warehouseId);
+
+    @Query(LOW_STOCK_SELECT + "and i.warehouse.id = :warehouseId and p.id in :productIds")
+    List<LowStockItem> findLowStock(
+            @Param("warehouseId") int warehouseId,
+            @Param("productIds") Collection<Integer> productIds
+    );
+}
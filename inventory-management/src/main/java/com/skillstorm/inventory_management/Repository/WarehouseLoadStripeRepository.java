@@ -0,0 +1,51 @@
+package com.skillstorm.inventory_management.Repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.skillstorm.inventory_management.Model.WarehouseLoadStripe;
+
+import jakarta.persistence.LockModeType;
+
+public interface WarehouseLoadStripeRepository extends JpaRepository<WarehouseLoadStripe, Long> {
+
+    /**
+     * Takes quantity out of a stripe's allowance only if the stripe still holds that much.
+     * Locks only the stripe row, never the warehouse row
+     * @return 1 if the quantity was taken, 0 if the stripe holds less or does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update WarehouseLoadStripe s set s.allowance = s.allowance - :quantity
+            where s.id = :id and s.allowance >= :quantity
+            """)
+    int take(@Param("id") long id, @Param("quantity") int quantity);
+
+    /**
+     * Adds quantity to a stripe's allowance as long as it stays at or under the limit
+     * @return 1 if the quantity was added, 0 if it would pass the limit or the stripe does not exist
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update WarehouseLoadStripe s set s.allowance = s.allowance + :quantity
+            where s.id = :id and s.allowance + :quantity <= :limit
+            """)
+    int give(@Param("id") long id, @Param("quantity") int quantity, @Param("limit") int limit);
+
+    /**
+     * Locks every stripe of a warehouse in ascending id order
+     * The warehouse row must already be locked by the transaction, see WarehouseService.reclaimAllowances
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from WarehouseLoadStripe s where s.warehouseId = :warehouseId order by s.id")
+    List<WarehouseLoadStripe> findByWarehouseIdForUpdate(@Param("warehouseId") int warehouseId);
+
+    @Modifying
+    @Query("delete from WarehouseLoadStripe s where s.warehouseId = :warehouseId")
+    int deleteByWarehouseId(@Param("warehouseId") int warehouseId);
+}
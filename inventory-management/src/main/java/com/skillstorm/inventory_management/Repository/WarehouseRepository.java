@@ -3,10 +3,146 @@
  */
 package com.skillstorm.inventory_management.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.skillstorm.inventory_management.DTO.WarehouseListItem;
+import com.skillstorm.inventory_management.DTO.WarehouseSummary;
 import com.skillstorm.inventory_management.Model.Warehouse;
 
+import jakarta.persistence.LockModeType;
+
 public interface WarehouseRepository extends JpaRepository<Warehouse, Integer>{
 
+    /** listing columns, read without the load stripe subquery of the entity */
+    String LIST_ITEM = "new com.skillstorm.inventory_management.DTO.WarehouseListItem(w.id, w.name, w.location, w.max_capacity)";
+
+    @Query("select " + LIST_ITEM + " from Warehouse w order by w.id")
+    List<WarehouseListItem> findPageOrderById(Limit limit);
+
+    @Query("select " + LIST_ITEM + " from Warehouse w where w.id > :id order by w.id")
+    List<WarehouseListItem> findPageOrderByIdAfter(@Param("id") int id, Limit limit);
+
+    @Query("select " + LIST_ITEM + " from Warehouse w order by coalesce(w.name, ''), w.id")
+    List<WarehouseListItem> findPageOrderByName(Limit limit);
+
+    @Query("select " + LIST_ITEM + """
+             from Warehouse w
+            where coalesce(w.name, '') > :name or (coalesce(w.name, '') = :name and w.id > :id)
+            order by coalesce(w.name, ''), w.id
+            """)
+    List<WarehouseListItem> findPageOrderByNameAfter(@Param("name") String name, @Param("id") int id, Limit limit);
+
+    /**
+     * Locks the given warehouses in ascending id order and reads their current load
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Warehouse w where w.id in :ids order by w.id")
+    List<Warehouse> findAllByIdInForUpdate(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Locks every warehouse in ascending id order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from Warehouse w order by w.id")
+    List<Warehouse> findAllForUpdate();
+
+    /**
+     * Id, name, current load and max capacity of every warehouse, read without loading entities
+     * The load leaves out capacity parked in load stripes, like Warehouse.getCurrentLoad
+     */
+    @Query("select w.id, w.name, w.currentLoad - w.stripeAllowance, w.max_capacity from Warehouse w")
+    List<Object[]> findLoadSnapshot();
+
+    /**
+     * Capacity summary of every warehouse in one query, with the number of inventory rows per warehouse
+     * Load is the maintained current_load counter without the capacity parked in load stripes. Null filters are ignored
+     * @param name           name fragment with LIKE wildcards escaped by a backslash
+     * @param minUtilization lowest load as a percentage of max capacity
+     * @param maxUtilization highest load as a percentage of max capacity
+     */
+    @Query("""
+            select new com.skillstorm.inventory_management.DTO.WarehouseSummary(
+                w.id, w.name, w.max_capacity, w.currentLoad - w.stripeAllowance,
+                (select count(i.id) from Inventory i where i.warehouse = w))
+            from Warehouse w
+            where (:name is null or upper(w.name) like upper(concat('%', :name, '%')) escape '\\')
+              and (:minUtilization is null or (w.currentLoad - w.stripeAllowance) * 100.0 >= :minUtilization * w.max_capacity)
+              and (:maxUtilization is null or (w.currentLoad - w.stripeAllowance) * 100.0 <= :maxUtilization * w.max_capacity)
+            """)
+    List<WarehouseSummary> findSummaries(
+            @Param("name") String name,
+            @Param("minUtilization") Double minUtilization,
+            @Param("maxUtilization") Double maxUtilization
+    );
+
+    @Query("select w.currentLoad - w.stripeAllowance from Warehouse w where w.id = :id")
+    Optional<Integer> findCurrentLoadById(@Param("id") int id);
+
+    @Query("select w.max_capacity - w.currentLoad + w.stripeAllowance from Warehouse w where w.id = :id")
+    Optional<Integer> findRemainingCapacityById(@Param("id") int id);
+
+    /**
+     * Capacity neither used by inventory nor handed to a load stripe, the most a warehouse row can still grant
+     */
+    @Query("select w.max_capacity - w.currentLoad from Warehouse w where w.id = :id")
+    Optional<Integer> findUnallocatedCapacityById(@Param("id") int id);
+
+    /**
+     * Updates the descriptive fields and max capacity without touching the load counter
+     * @return number of rows updated, 0 if the warehouse does not exist
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Warehouse w set w.name = :name, w.location = :location, w.max_capacity = :maxCapacity where w.id = :id")
+    int updateDetails(@Param("id") int id, @Param("name") String name, @Param("location") String location,
+                      @Param("maxCapacity") int maxCapacity);
+
+    /**
+     * Applies a quantity change to the stored load counter in a single UPDATE
+     * @return number of rows updated, 0 if the warehouse does not exist
+     */
+    @Modifying
+    @Query("update Warehouse w set w.currentLoad = w.currentLoad + :delta where w.id = :id")
+    int adjustCurrentLoad(@Param("id") int id, @Param("delta") int delta);
+
+    /**
+     * Recomputes the load counter of one warehouse from its inventory rows, pending journal movements
+     * and the allowance of its load stripes
+     * The sums are read from the statement's snapshot, so the warehouse row must already be locked
+     * by an earlier statement of the transaction, see findAllByIdInForUpdate
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Warehouse w set w.currentLoad = cast(
+                (select coalesce(sum(i.quantity), 0) from Inventory i where i.warehouse.id = w.id)
+                + (select coalesce(sum(m.delta), 0) from InventoryMovement m where m.applied = false and m.warehouseId = w.id)
+                + (select coalesce(sum(s.allowance), 0) from WarehouseLoadStripe s where s.warehouseId = w.id)
+                as Integer)
+            where w.id = :id
+            """)
+    int rebuildCurrentLoad(@Param("id") int id);
+
+    /**
+     * Recomputes the load counter of every warehouse from its inventory rows, pending journal movements
+     * and the allowance of its load stripes
+     * The sums are read from the statement's snapshot, so the warehouse rows must already be locked
+     * by an earlier statement of the transaction, see findAllForUpdate
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Warehouse w set w.currentLoad = cast(
+                (select coalesce(sum(i.quantity), 0) from Inventory i where i.warehouse.id = w.id)
+                + (select coalesce(sum(m.delta), 0) from InventoryMovement m where m.applied = false and m.warehouseId = w.id)
+                + (select coalesce(sum(s.allowance), 0) from WarehouseLoadStripe s where s.warehouseId = w.id)
+                as Integer)
+            """)
+    int rebuildAllCurrentLoads();
 }
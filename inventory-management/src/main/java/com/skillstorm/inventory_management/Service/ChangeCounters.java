@@ -0,0 +1,196 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstorm.inventory_management.Model.ChangeVersion;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Repository.ChangeVersionRepository;
+
+/**
+ * Change counters for the data behind the cacheable read endpoints.
+ * Services report writes with changed(), the local counter moves once the transaction commits,
+ * and controllers turn the current value into an ETag without touching the database.
+ * A sync on a fixed delay bumps the shared CHANGE_VERSIONS row of every topic written here since
+ * the last sync and reads back all shared versions, so a write through any instance changes the tags
+ * of every instance within two sync intervals. Until its sync, a local write also adds this instance's
+ * startup time and counter to its own tags, so clients of the writing instance see it straight away.
+ */
+@Component
+public class ChangeCounters implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeCounters.class);
+
+    public enum Topic {
+        /** products, created by ProductService */
+        CATALOG,
+        /** warehouse names, locations and max capacities, written by WarehouseService; not the load */
+        WAREHOUSES,
+        /** the Department enum, which only changes with a deployment */
+        DEPARTMENTS
+    }
+
+    /** topics kept in CHANGE_VERSIONS, departments are tagged from the enum itself */
+    private static final Set<Topic> SHARED = EnumSet.of(Topic.CATALOG, Topic.WAREHOUSES);
+
+    private static final String DEPARTMENTS_TAG = "\"departments-"
+            + Integer.toHexString(Arrays.toString(Department.values()).hashCode()) + "\"";
+
+    private final ChangeVersionRepository changeVersionRepository;
+    private final TransactionTemplate syncTransaction;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Topic, AtomicLong> counters = new EnumMap<>(Topic.class);
+    private final Map<Topic, Long> syncedCounters = new EnumMap<>(Topic.class);
+    private volatile Map<Topic, Long> sharedVersions = new EnumMap<>(Topic.class);
+
+    public ChangeCounters(ChangeVersionRepository changeVersionRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.changeVersionRepository = changeVersionRepository;
+        this.syncTransaction = new TransactionTemplate(transactionManager);
+        for (Topic topic : Topic.values()) {
+            counters.put(topic, new AtomicLong());
+            syncedCounters.put(topic, 0L);
+        }
+    }
+
+    /**
+     * Creates missing version rows and bumps every shared version once, before requests are served,
+     * so writes that an instance committed but never synced before it stopped still invalidate old tags
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Topic topic : SHARED) {
+            String name = topic.name();
+            if (changeVersionRepository.existsById(name)) {
+                continue;
+            }
+            try {
+                changeVersionRepository.save(new ChangeVersion(name, 0));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Change version {} was created by another instance", name);
+            }
+        }
+        for (Topic topic : SHARED) {
+            syncedCounters.put(topic, -1L);
+        }
+        sync();
+    }
+
+    /**
+     * Returns a strong ETag for the current state of a topic
+     * The counter must be read before the data it describes, so a tag never labels older data
+     * @param topic data set
+     * @return quoted ETag value
+     */
+    public String etag(Topic topic) {
+        if (topic == Topic.DEPARTMENTS) {
+            return DEPARTMENTS_TAG;
+        }
+        long local = counters.get(topic).get();
+        String tag = topic.name().toLowerCase(Locale.ROOT) + "-" + sharedVersions.getOrDefault(topic, 0L);
+        synchronized (syncedCounters) {
+            if (local != syncedCounters.get(topic)) {
+                tag += "-" + epoch + "-" + local;
+            }
+        }
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Bumps the shared version of every topic written through this instance since the last sync,
+     * then reads back the shared versions of all topics
+     */
+    @Scheduled(initialDelayString = "${inventory.http-cache.sync-ms:1000}",
+               fixedDelayString = "${inventory.http-cache.sync-ms:1000}")
+    public void sync() {
+        Map<Topic, Long> seen = new EnumMap<>(Topic.class);
+        List<String> written = new ArrayList<>();
+        synchronized (syncedCounters) {
+            for (Topic topic : SHARED) {
+                long local = counters.get(topic).get();
+                seen.put(topic, local);
+                if (local != syncedCounters.get(topic)) {
+                    written.add(topic.name());
+                }
+            }
+        }
+        Map<Topic, Long> versions = new EnumMap<>(Topic.class);
+        try {
+            syncTransaction.executeWithoutResult(status -> {
+                if (!written.isEmpty()) {
+                    changeVersionRepository.bump(written);
+                }
+                for (ChangeVersion version : changeVersionRepository.findAllById(
+                        SHARED.stream().map(Topic::name).toList())) {
+                    versions.put(Topic.valueOf(version.getTopic()), version.getVersion());
+                }
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not sync change versions, keeping the local tags: {}", e.getMessage());
+            return;
+        }
+        synchronized (syncedCounters) {
+            sharedVersions = versions;
+            syncedCounters.putAll(seen);
+        }
+    }
+
+    /**
+     * Records a write to a topic. Inside a transaction the counter moves after commit,
+     * once per transaction and topic, and not at all on rollback
+     * @param topic data set that changed
+     */
+    public void changed(Topic topic) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counters.get(topic).incrementAndGet();
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.topics.add(topic);
+    }
+
+    /**
+     * Topics written by the current transaction
+     */
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final Set<Topic> topics = EnumSet.noneOf(Topic.class);
+
+        @Override
+        public void afterCommit() {
+            for (Topic topic : topics) {
+                counters.get(topic).incrementAndGet();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeCounters.this);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.inventory_management.DTO.CursorPage;
+
+/**
+ * Shared rules for keyset paginated listings.
+ * A cursor is an opaque token holding the sort key plus the sort value and id of the
+ * last row on the previous page, so the next page starts with a "greater than" seek
+ * instead of an OFFSET and costs the same no matter how deep it is.
+ */
+@Component
+public class CursorPagination {
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public CursorPagination(@Value("${inventory.pagination.default-size:100}") int defaultSize,
+                            @Value("${inventory.pagination.max-size:1000}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Position of the last row of a page
+     */
+    public static class Cursor {
+
+        private final int id;
+        private final String value;
+
+        Cursor(int id, String value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Resolves the requested page size against the configured default and maximum
+     * @param requested requested size, or null for the default
+     * @return page size to use
+     * @throws IllegalArgumentException if size is less than 1
+     */
+    public int resolveSize(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    /**
+     * Limit that fetches one row more than the page, to detect whether a next page exists
+     * @param size resolved page size
+     */
+    public Limit probeLimit(int size) {
+        return Limit.of(size + 1);
+    }
+
+    /**
+     * Validates the sort parameter of a listing
+     * @param sort    requested sort key, or null for "id"
+     * @param allowed sort keys the listing supports
+     * @return sort key to use
+     * @throws IllegalArgumentException if the sort key is not supported
+     */
+    public String resolveSort(String sort, Set<String> allowed) {
+        String key = (sort == null || sort.isBlank()) ? "id" : sort.trim();
+        if (!allowed.contains(key)) {
+            throw new IllegalArgumentException("Unsupported sort " + key + ", expected one of " + allowed);
+        }
+        return key;
+    }
+
+    /**
+     * Decodes a cursor issued for the given sort key
+     * @param token cursor token, or null for the first page
+     * @param sort  sort key of the current request
+     * @return decoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the token is malformed or was issued for another sort
+     */
+    public Cursor decode(String token, String sort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(sort)) {
+                throw new IllegalArgumentException("Cursor does not match sort " + sort);
+            }
+            return new Cursor(Integer.parseInt(parts[1]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Trims the probe row from a fetched page and builds the next cursor from the last row kept
+     * @param rows     rows fetched with probeLimit
+     * @param size     resolved page size
+     * @param sort     sort key of the current request
+     * @param idOf     extracts the row id
+     * @param valueOf  extracts the sort value, ignored when sorting by id
+     * @return the page
+     */
+    public <T> CursorPage<T> toPage(List<T> rows, int size, String sort,
+                                    Function<T, Integer> idOf, Function<T, String> valueOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        T last = items.get(size - 1);
+        String value = "id".equals(sort) ? "" : valueOf.apply(last);
+        String raw = sort + ":" + idOf.apply(last) + ":" + (value == null ? "" : value);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        return new CursorPage<>(List.copyOf(items), token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.util.List;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves the id sequences past the ids already stored in their tables.
+ * Rows inserted while the tables used identity columns, or with explicit ids by a seed script,
+ * would otherwise collide with the blocks of 50 ids the sequences hand out.
+ * Runs once after the context is built, before the web server accepts requests.
+ * Checking a sequence consumes one value, which skips at most one block of ids per startup.
+ */
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("warehouses_seq", "warehouses", "id"),
+            new IdSequence("products_seq", "products", "id"),
+            new IdSequence("inventory_seq", "inventory", "inventory_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        alignAll();
+    }
+
+    /**
+     * Restarts every sequence whose next value is not above the largest id in its table
+     * @return number of sequences that were restarted
+     */
+    public int alignAll() {
+        int restarted = 0;
+        for (IdSequence sequence : SEQUENCES) {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "select coalesce(max(" + sequence.column() + "), 0) from " + sequence.table(), Long.class);
+            Long next = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(sequence.name()), Long.class);
+            if (next != null && maxId != null && next <= maxId) {
+                jdbcTemplate.execute("alter sequence " + sequence.name() + " restart with " + (maxId + 1));
+                log.info("Restarted {} at {}", sequence.name(), maxId + 1);
+                restarted++;
+            }
+        }
+        return restarted;
+    }
+
+    private record IdSequence(String name, String table, String column) {
+    }
+}
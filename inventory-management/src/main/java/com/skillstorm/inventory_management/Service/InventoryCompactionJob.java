@@ -0,0 +1,41 @@
+package com.skillstorm.inventory_management.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Folds the inventory journal into the inventory rows on a fixed delay.
+ * Each batch is its own transaction, and a run keeps going while batches come back full.
+ * Folded movements are counted in the inventory.journal.compacted metric.
+ */
+@Component
+public class InventoryCompactionJob {
+
+    private final InventoryJournal inventoryJournal;
+    private final int batchSize;
+    private final Counter compacted;
+
+    public InventoryCompactionJob(InventoryJournal inventoryJournal,
+                                  @Value("${inventory.journal.compact-batch-size:500}") int batchSize,
+                                  MeterRegistry meterRegistry) {
+        this.inventoryJournal = inventoryJournal;
+        this.batchSize = batchSize;
+        this.compacted = Counter.builder("inventory.journal.compacted")
+                .description("Inventory journal movements folded into inventory rows")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${inventory.journal.compact-interval-ms:1000}",
+               fixedDelayString = "${inventory.journal.compact-interval-ms:1000}")
+    public void compact() {
+        int folded;
+        do {
+            folded = inventoryJournal.compact(batchSize);
+            compacted.increment(folded);
+        } while (folded >= batchSize);
+    }
+}
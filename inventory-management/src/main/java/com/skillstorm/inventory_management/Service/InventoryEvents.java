@@ -0,0 +1,157 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.skillstorm.inventory_management.DTO.InventoryEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sequence of committed inventory changes.
+ * InventoryService publishes an event for every row it changes. Events of a transaction are numbered
+ * and handed to the listeners once it commits, and dropped on rollback. The latest events are kept
+ * so a reconnecting client can resume after the last id it saw. Ids start with the startup time,
+ * so an id from before a restart or from another instance is never mistaken for a position here.
+ */
+@Component
+public class InventoryEvents {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int historySize;
+    private final Counter publishedCounter;
+    private final List<Consumer<InventoryEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ArrayDeque<InventoryEvent> history = new ArrayDeque<>();
+    private long lastSequence;
+
+    public InventoryEvents(@Value("${inventory.events.history-size:10000}") int historySize,
+                           MeterRegistry meterRegistry) {
+        this.historySize = historySize;
+        this.publishedCounter = Counter.builder("inventory.events.published")
+                .description("Inventory change events committed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a listener for committed events. It is called in sequence order
+     * while events are being numbered, so it must hand them off without blocking
+     * @param listener receives each event once
+     */
+    public void addListener(Consumer<InventoryEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Publishes a change. Inside a transaction the event is released after commit and not at all on rollback
+     * @param event change of one inventory row
+     */
+    public void publish(InventoryEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(List.of(event));
+            return;
+        }
+        PendingEvents pending = (PendingEvents) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingEvents();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    /**
+     * Formats a sequence number as an event id
+     * @param sequence event sequence
+     * @return id in the form epoch-sequence
+     */
+    public String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Returns the id of the latest committed event, for a new subscriber that has not seen any
+     */
+    public synchronized String currentEventId() {
+        return eventId(lastSequence);
+    }
+
+    /**
+     * Parses an event id from this instance
+     * @param eventId id sent with an earlier event
+     * @return its sequence, or -1 if the id is malformed or was issued before a restart or elsewhere
+     */
+    public long parseSequence(String eventId) {
+        if (eventId == null || !eventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the retained events of a warehouse after a sequence, for a client resuming its stream
+     * @param warehouseId warehouse id
+     * @param sequence    last sequence the client received
+     * @return events in order, or null if events after the sequence are no longer retained
+     */
+    public synchronized List<InventoryEvent> eventsAfter(int warehouseId, long sequence) {
+        if (sequence < 0 || sequence > lastSequence) {
+            return null;
+        }
+        if (sequence < lastSequence - history.size()) {
+            return null;
+        }
+        List<InventoryEvent> events = new ArrayList<>();
+        for (InventoryEvent event : history) {
+            if (event.getSequence() > sequence && event.getWarehouseId() == warehouseId) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private synchronized void release(List<InventoryEvent> events) {
+        for (InventoryEvent event : events) {
+            event.setSequence(++lastSequence);
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Consumer<InventoryEvent> listener : listeners) {
+                listener.accept(event);
+            }
+        }
+        publishedCounter.increment(events.size());
+    }
+
+    /**
+     * Events published by the current transaction
+     */
+    private class PendingEvents implements TransactionSynchronization {
+
+        private final List<InventoryEvent> events = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            release(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InventoryEvents.this);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.skillstorm.inventory_management.DTO.InventoryExportRow;
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Repository.InventoryRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Streams inventory rows to an output stream as NDJSON or CSV.
+ * Rows are read through a database cursor in one read-only transaction and written as they arrive.
+ * The persistence context is cleared every few hundred rows, so memory stays flat whatever the table size.
+ */
+@Service
+public class InventoryExportService {
+
+    private static final String CSV_HEADER =
+            "id,warehouseId,productId,sku,name,description,category,quantity,storageLocation,version";
+
+    private final InventoryRepository inventoryRepository;
+    private final WarehouseService warehouseService;
+    private final EntityManager entityManager;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int clearEvery;
+
+    public InventoryExportService(InventoryRepository inventoryRepository,
+                                  WarehouseService warehouseService,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${inventory.export.clear-every:500}") int clearEvery) {
+        this.inventoryRepository = inventoryRepository;
+        this.warehouseService = warehouseService;
+        this.entityManager = entityManager;
+        this.rowWriter = objectMapper.writerFor(InventoryExportRow.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.clearEvery = clearEvery;
+    }
+
+    /**
+     * Checks the export filter before the response is committed
+     * @param warehouseId warehouse id, or null for every warehouse
+     * @throws IllegalArgumentException if the warehouse does not exist
+     */
+    public void requireWarehouse(Integer warehouseId) {
+        if (warehouseId != null && warehouseService.findWarehouseById(warehouseId) == null) {
+            throw new IllegalArgumentException("Warehouse with id " + warehouseId + " not found");
+        }
+    }
+
+    /**
+     * Writes one JSON object per line
+     * @param warehouseId warehouse id, or null for every warehouse
+     * @param out         response stream, left open
+     * @return number of rows written
+     */
+    public long exportNdjson(Integer warehouseId, OutputStream out) throws IOException {
+        Writer writer = newWriter(out);
+        long count = export(warehouseId, writer, row -> {
+            rowWriter.writeValue(writer, row);
+            writer.write('\n');
+        });
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Writes a header line and one CSV record per row, with the columns the bulk import accepts
+     * @param warehouseId warehouse id, or null for every warehouse
+     * @param out         response stream, left open
+     * @return number of rows written
+     */
+    public long exportCsv(Integer warehouseId, OutputStream out) throws IOException {
+        Writer writer = newWriter(out);
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = export(warehouseId, writer, row -> {
+            writer.write(row.getId() + "," + row.getWarehouseId() + "," + row.getProductId() + ",");
+            writer.write(csvField(row.getSku()) + "," + csvField(row.getName()) + ","
+                    + csvField(row.getDescription()) + ",");
+            writer.write(row.getCategory() == null ? "" : row.getCategory().name());
+            writer.write("," + row.getQuantity() + "," + csvField(row.getStorageLocation()) + "," + row.getVersion());
+            writer.write('\n');
+        });
+        writer.flush();
+        return count;
+    }
+
+    private Writer newWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    /**
+     * Reads the rows through the repository stream and hands each one to the sink,
+     * clearing the persistence context and flushing the writer every clearEvery rows
+     */
+    private long export(Integer warehouseId, Writer writer, RowSink sink) throws IOException {
+        try {
+            Long count = readOnlyTransaction.execute(status -> {
+                long written = 0;
+                try (Stream<Object[]> rows = inventoryRepository.streamForExport(warehouseId)) {
+                    Iterator<Object[]> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        Object[] next = iterator.next();
+                        sink.write(toExportRow((Inventory) next[0], (Integer) next[1]));
+                        if (++written % clearEvery == 0) {
+                            entityManager.clear();
+                            writer.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return written;
+            });
+            return count == null ? 0 : count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private InventoryExportRow toExportRow(Inventory row, int pending) {
+        Product product = row.getProduct();
+        return new InventoryExportRow(row.getId(), row.getWarehouse().getId(), product.getId(), product.getSku(),
+                product.getName(), product.getDescription(), product.getCategory(),
+                row.getQuantity() + pending, row.getStorageLocation(), row.getVersion());
+    }
+
+    /**
+     * Quotes a field if it contains a comma, quote or line break, doubling embedded quotes
+     */
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private interface RowSink {
+        void write(InventoryExportRow row) throws IOException;
+    }
+}
@@ -0,0 +1,251 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstorm.inventory_management.DTO.BulkImportLineError;
+import com.skillstorm.inventory_management.DTO.BulkImportResult;
+import com.skillstorm.inventory_management.DTO.InventoryCreateRequest;
+import com.skillstorm.inventory_management.DTO.InventoryImportLine;
+import com.skillstorm.inventory_management.Model.Department;
+
+/**
+ * Streams a bulk inventory upload line by line and hands it to InventoryService in chunks.
+ * Each chunk is its own transaction, so a bad chunk does not roll back the ones before it.
+ */
+@Service
+public class InventoryImportService {
+
+    private static final String[] CSV_COLUMNS = {
+            "sku", "name", "description", "category", "quantity", "storagelocation"
+    };
+
+    private final InventoryService inventoryService;
+    private final WarehouseService warehouseService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public InventoryImportService(InventoryService inventoryService,
+                                  WarehouseService warehouseService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${inventory.bulk-import.chunk-size:500}") int chunkSize) {
+        this.inventoryService = inventoryService;
+        this.warehouseService = warehouseService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports a CSV upload. The first non-blank line is a header naming the columns
+     * sku, name, description, category, quantity and storageLocation in any order
+     * @param warehouseId warehouse id
+     * @param body        request body stream
+     * @return import summary with per-line errors
+     * @throws IllegalArgumentException if the warehouse does not exist or the header is invalid
+     */
+    public BulkImportResult importCsv(int warehouseId, InputStream body) throws IOException {
+        requireWarehouse(warehouseId);
+        BulkImportResult result = new BulkImportResult();
+        List<InventoryImportLine> chunk = new ArrayList<>(chunkSize);
+        Map<String, Integer> columns = null;
+
+        try (BufferedReader reader = newReader(body)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = splitCsvLine(line);
+                if (columns == null) {
+                    columns = readCsvHeader(fields);
+                    continue;
+                }
+                result.setTotalLines(result.getTotalLines() + 1);
+                try {
+                    chunk.add(new InventoryImportLine(lineNumber, toRequest(fields, columns)));
+                } catch (IllegalArgumentException e) {
+                    addError(result, new BulkImportLineError(lineNumber, csvField(fields, columns, "sku"), e.getMessage()));
+                }
+                flushIfFull(warehouseId, chunk, result);
+            }
+        }
+        flush(warehouseId, chunk, result);
+        result.getErrors().sort(Comparator.comparingInt(BulkImportLineError::getLineNumber));
+        return result;
+    }
+
+    /**
+     * Imports an NDJSON upload, one InventoryCreateRequest JSON object per line
+     * @param warehouseId warehouse id
+     * @param body        request body stream
+     * @return import summary with per-line errors
+     * @throws IllegalArgumentException if the warehouse does not exist
+     */
+    public BulkImportResult importNdjson(int warehouseId, InputStream body) throws IOException {
+        requireWarehouse(warehouseId);
+        BulkImportResult result = new BulkImportResult();
+        List<InventoryImportLine> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = newReader(body)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setTotalLines(result.getTotalLines() + 1);
+                try {
+                    InventoryCreateRequest request = objectMapper.readValue(line, InventoryCreateRequest.class);
+                    chunk.add(new InventoryImportLine(lineNumber, request));
+                } catch (JsonProcessingException e) {
+                    addError(result, new BulkImportLineError(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage()));
+                }
+                flushIfFull(warehouseId, chunk, result);
+            }
+        }
+        flush(warehouseId, chunk, result);
+        result.getErrors().sort(Comparator.comparingInt(BulkImportLineError::getLineNumber));
+        return result;
+    }
+
+    private void requireWarehouse(int warehouseId) {
+        if (warehouseService.findWarehouseById(warehouseId) == null) {
+            throw new IllegalArgumentException("Warehouse with id " + warehouseId + " not found");
+        }
+    }
+
+    private BufferedReader newReader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    private void flushIfFull(int warehouseId, List<InventoryImportLine> chunk, BulkImportResult result) {
+        if (chunk.size() >= chunkSize) {
+            flush(warehouseId, chunk, result);
+        }
+    }
+
+    /**
+     * Sends the buffered lines to InventoryService and records the outcome.
+     * If the chunk transaction fails as a whole, every line in it is reported as failed
+     */
+    private void flush(int warehouseId, List<InventoryImportLine> chunk, BulkImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<BulkImportLineError> errors;
+        try {
+            errors = inventoryService.importChunk(warehouseId, chunk);
+        } catch (RuntimeException e) {
+            errors = new ArrayList<>();
+            for (InventoryImportLine line : chunk) {
+                errors.add(new BulkImportLineError(line.getLineNumber(), line.getRequest().getSku(),
+                        "Chunk rejected: " + e.getMessage()));
+            }
+        }
+        for (BulkImportLineError error : errors) {
+            addError(result, error);
+        }
+        result.setImportedLines(result.getImportedLines() + chunk.size() - errors.size());
+        chunk.clear();
+    }
+
+    private void addError(BulkImportResult result, BulkImportLineError error) {
+        result.getErrors().add(error);
+        result.setFailedLines(result.getFailedLines() + 1);
+    }
+
+    private Map<String, Integer> readCsvHeader(List<String> fields) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            columns.put(fields.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : new String[] { "sku", "name", "quantity" }) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain the columns " + String.join(",", CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    private InventoryCreateRequest toRequest(List<String> fields, Map<String, Integer> columns) {
+        InventoryCreateRequest request = new InventoryCreateRequest();
+        request.setSku(csvField(fields, columns, "sku"));
+        request.setName(csvField(fields, columns, "name"));
+        request.setDescription(csvField(fields, columns, "description"));
+        request.setStorageLocation(csvField(fields, columns, "storagelocation"));
+
+        String category = csvField(fields, columns, "category");
+        if (category != null) {
+            try {
+                request.setCategory(Department.valueOf(category.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown category " + category);
+            }
+        }
+
+        String quantity = csvField(fields, columns, "quantity");
+        try {
+            request.setQuantity(Integer.parseInt(quantity == null ? "" : quantity.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Quantity must be a whole number");
+        }
+        return request;
+    }
+
+    private String csvField(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV record, honoring double quoted fields and "" escapes
+     */
+    private List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,226 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.InventoryMovement;
+import com.skillstorm.inventory_management.Model.MovementReason;
+import com.skillstorm.inventory_management.Repository.InventoryMovementRepository;
+import com.skillstorm.inventory_management.Repository.InventoryRepository;
+import com.skillstorm.inventory_management.Repository.ProductRepository;
+import com.skillstorm.inventory_management.Repository.WarehouseRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Append-only journal of inventory quantity changes.
+ * Writers append signed movements instead of updating the INVENTORY row, so receipts into a
+ * popular row do not queue behind each other. The effective quantity of a row is its stored
+ * quantity plus its pending movements, and compact() folds pending movements into the rows in batches.
+ * Movements are never deleted, so the journal doubles as the history of every row.
+ */
+@Service
+@Timed("inventory.service")
+public class InventoryJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryJournal.class);
+
+    private static final int MARK_CHUNK = 1_000;
+
+    private final InventoryMovementRepository movementRepository;
+    private final InventoryRepository inventoryRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductRepository productRepository;
+
+    public InventoryJournal(InventoryMovementRepository movementRepository,
+                            InventoryRepository inventoryRepository,
+                            WarehouseRepository warehouseRepository,
+                            ProductRepository productRepository) {
+        this.movementRepository = movementRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.warehouseRepository = warehouseRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Appends a pending movement
+     * @param warehouseId warehouse id
+     * @param productId   product id
+     * @param delta       signed quantity change
+     * @param reason      why the quantity changed
+     */
+    public void append(int warehouseId, int productId, int delta, MovementReason reason) {
+        movementRepository.save(new InventoryMovement(warehouseId, productId, delta, reason, false));
+    }
+
+    /**
+     * Appends pending movements in one batch
+     * @param movements new movements
+     */
+    public void appendAll(List<InventoryMovement> movements) {
+        movementRepository.saveAll(movements);
+    }
+
+    /**
+     * Appends a movement that the caller already wrote into the row, so it is kept as history only
+     * @param warehouseId warehouse id
+     * @param productId   product id
+     * @param delta       signed quantity change
+     * @param reason      why the quantity changed
+     */
+    public void record(int warehouseId, int productId, int delta, MovementReason reason) {
+        movementRepository.save(new InventoryMovement(warehouseId, productId, delta, reason, true));
+    }
+
+    /**
+     * Sum of the pending movements of one warehouse and product
+     */
+    public int pendingQuantity(int warehouseId, int productId) {
+        return (int) movementRepository.sumPending(warehouseId, productId);
+    }
+
+    /**
+     * Pending sums for every combination of the given warehouses and products
+     * @return sums keyed by stockKey, combinations without pending movements are absent
+     */
+    public Map<Long, Integer> pendingQuantities(Collection<Integer> warehouseIds, Collection<Integer> productIds) {
+        Map<Long, Integer> pending = new HashMap<>();
+        if (warehouseIds.isEmpty() || productIds.isEmpty()) {
+            return pending;
+        }
+        for (Object[] row : movementRepository.sumPendingFor(warehouseIds, productIds)) {
+            pending.put(stockKey((Integer) row[0], (Integer) row[1]), ((Number) row[2]).intValue());
+        }
+        return pending;
+    }
+
+    /**
+     * Loads the pending quantity of a row into its pendingQuantity field
+     * @param row inventory row
+     * @return the same row
+     */
+    public Inventory withPending(Inventory row) {
+        row.setPendingQuantity(pendingQuantity(row.getWarehouse().getId(), row.getProduct().getId()));
+        return row;
+    }
+
+    /**
+     * Pending movements of a row, for callers that fold them into the row themselves
+     * @param row inventory row
+     */
+    public List<InventoryMovement> findPending(Inventory row) {
+        return movementRepository.findPendingFor(row.getWarehouse().getId(), row.getProduct().getId());
+    }
+
+    /**
+     * Marks movements as folded into their rows
+     * @param movements movements read by findPending in this transaction
+     * @throws OptimisticLockingFailureException if any of them was folded by someone else in the meantime
+     */
+    public void markApplied(Collection<InventoryMovement> movements) {
+        List<Long> ids = new ArrayList<>(movements.size());
+        for (InventoryMovement movement : movements) {
+            ids.add(movement.getId());
+        }
+        if (markAppliedIds(ids) != ids.size()) {
+            throw new OptimisticLockingFailureException("Inventory journal entries were compacted concurrently");
+        }
+    }
+
+    /**
+     * Folds the oldest pending movements into their inventory rows
+     * The rows of the batch are locked in warehouse id then product id order, then all of their
+     * pending movements are read again, so entries committed in the meantime are folded as well.
+     * A movement without a row recreates the row when it adds stock, for receipts that raced a delete
+     * @param batchSize maximum number of pending movements that start a batch
+     * @return number of movements folded
+     */
+    @Transactional
+    public int compact(int batchSize) {
+        List<InventoryMovement> oldest = movementRepository.findPending(Limit.of(batchSize));
+        if (oldest.isEmpty()) {
+            return 0;
+        }
+        Set<Integer> warehouseIds = new TreeSet<>();
+        Set<Integer> productIds = new TreeSet<>();
+        Set<Long> keys = new HashSet<>();
+        for (InventoryMovement movement : oldest) {
+            warehouseIds.add(movement.getWarehouseId());
+            productIds.add(movement.getProductId());
+            keys.add(stockKey(movement.getWarehouseId(), movement.getProductId()));
+        }
+
+        Map<Long, Inventory> rows = new HashMap<>();
+        for (Inventory row : inventoryRepository.findByWarehouseIdsAndProductIdsForUpdate(warehouseIds, productIds)) {
+            rows.put(stockKey(row.getWarehouse().getId(), row.getProduct().getId()), row);
+        }
+
+        Map<Long, Integer> sums = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (InventoryMovement movement : movementRepository.findPendingFor(warehouseIds, productIds)) {
+            long key = stockKey(movement.getWarehouseId(), movement.getProductId());
+            if (keys.contains(key)) {
+                sums.merge(key, movement.getDelta(), Integer::sum);
+                ids.add(movement.getId());
+            }
+        }
+
+        List<Inventory> created = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : sums.entrySet()) {
+            Inventory row = rows.get(entry.getKey());
+            int sum = entry.getValue();
+            if (row != null) {
+                if (sum != 0) {
+                    row.setQuantity(row.getQuantity() + sum);
+                }
+                continue;
+            }
+            int warehouseId = (int) (entry.getKey() >>> 32);
+            int productId = (int) (long) entry.getKey();
+            if (sum <= 0) {
+                continue;
+            }
+            if (!warehouseRepository.existsById(warehouseId) || !productRepository.existsById(productId)) {
+                log.warn("Dropping {} pending units for missing warehouse {} or product {}", sum, warehouseId, productId);
+                continue;
+            }
+            created.add(new Inventory(warehouseRepository.getReferenceById(warehouseId),
+                    productRepository.getReferenceById(productId), sum, null));
+        }
+        inventoryRepository.saveAll(created);
+
+        if (markAppliedIds(ids) != ids.size()) {
+            throw new OptimisticLockingFailureException("Inventory journal entries were compacted concurrently");
+        }
+        return ids.size();
+    }
+
+    private int markAppliedIds(List<Long> ids) {
+        int marked = 0;
+        for (int from = 0; from < ids.size(); from += MARK_CHUNK) {
+            marked += movementRepository.markApplied(ids.subList(from, Math.min(ids.size(), from + MARK_CHUNK)));
+        }
+        return marked;
+    }
+
+    /**
+     * Packs a warehouse id and a product id into one map key
+     */
+    static long stockKey(int warehouseId, int productId) {
+        return ((long) warehouseId << 32) | (productId & 0xFFFFFFFFL);
+    }
+}
@@ -1,40 +1,102 @@
 package com.skillstorm.inventory_management.Service;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstorm.inventory_management.DTO.BatchTransferResult;
+import com.skillstorm.inventory_management.DTO.BulkImportLineError;
+import com.skillstorm.inventory_management.DTO.CursorPage;
+import com.skillstorm.inventory_management.DTO.InventoryCreateRequest;
+import com.skillstorm.inventory_management.DTO.InventoryEvent;
+import com.skillstorm.inventory_management.DTO.InventoryImportLine;
+import com.skillstorm.inventory_management.DTO.InventoryRow;
+import com.skillstorm.inventory_management.DTO.TransferLine;
+import com.skillstorm.inventory_management.DTO.TransferLineResult;
 import com.skillstorm.inventory_management.Model.Department;
 import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.InventoryMovement;
+import com.skillstorm.inventory_management.Model.MovementReason;
 import com.skillstorm.inventory_management.Model.Product;
 import com.skillstorm.inventory_management.Model.Warehouse;
 import com.skillstorm.inventory_management.Repository.InventoryRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
+@Timed("inventory.service")
 public class InventoryService {
 
+    private static final Set<String> PAGE_SORTS = Set.of("id", "sku");
+
     private final InventoryRepository inventoryRepository;
+    private final InventoryJournal inventoryJournal;
     private final WarehouseService warehouseService;
     private final ProductService productService;
+    private final CursorPagination cursorPagination;
+    private final ProductSearchIndex productSearchIndex;
+    private final LowStockService lowStockService;
+    private final InventoryEvents inventoryEvents;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchTransferLines;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxUpdateAttempts;
 
     public InventoryService(InventoryRepository inventoryRepository,
+                            InventoryJournal inventoryJournal,
                             WarehouseService warehouseService,
-                            ProductService productService) {
+                            ProductService productService,
+                            CursorPagination cursorPagination,
+                            ProductSearchIndex productSearchIndex,
+                            LowStockService lowStockService,
+                            InventoryEvents inventoryEvents,
+                            MeterRegistry meterRegistry,
+                            @Value("${inventory.transfer.max-batch-lines:1000}") int maxBatchTransferLines,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${inventory.update.max-attempts:3}") int maxUpdateAttempts) {
         this.inventoryRepository = inventoryRepository;
+        this.inventoryJournal = inventoryJournal;
         this.warehouseService = warehouseService;
         this.productService = productService;
+        this.cursorPagination = cursorPagination;
+        this.productSearchIndex = productSearchIndex;
+        this.lowStockService = lowStockService;
+        this.inventoryEvents = inventoryEvents;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchTransferLines = maxBatchTransferLines;
+        this.transactionTemplate = transactionTemplate;
+        this.maxUpdateAttempts = maxUpdateAttempts;
     }
 
     /**
      * Find row in inventory by id 
+     * The returned quantity includes journal movements that are not compacted yet
      * @param id inventory row id
      * @return the inventory if found or null if does not exist
      */
+    @Transactional(readOnly = true)
     public Inventory findById(int id) {
-        return inventoryRepository.findById(id).orElse(null);
+        return inventoryRepository.findById(id).map(inventoryJournal::withPending).orElse(null);
     }
 
     /**
@@ -42,6 +104,7 @@ public class InventoryService {
      * @param warehouseId warehouse id
      * @return list of Inventory entries for that warehouse or an empty list if the warehouse is not found
      */
+    @Transactional(readOnly = true)
     public List<Inventory> findInventoryByWarehouseId(int warehouseId) {
         Warehouse warehouse = warehouseService.findWarehouseById(warehouseId);
         if (warehouse == null) {
@@ -50,44 +113,126 @@ public class InventoryService {
         return inventoryRepository.findByWarehouse(warehouse);
     }
 
+    /**
+     * Retrieve one keyset page of inventory rows in a warehouse
+     * Rows are flat projections read with a single join query
+     * @param warehouseId warehouse id
+     * @param size        page size, or null for the configured default
+     * @param cursor      nextCursor of the previous page, or null for the first page
+     * @param sort        id or sku, defaults to id
+     * @return page of inventory rows, empty if the warehouse is not found
+     * @throws IllegalArgumentException if size, cursor or sort are invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InventoryRow> findInventoryPageByWarehouseId(int warehouseId, Integer size, String cursor, String sort) {
+        String sortKey = cursorPagination.resolveSort(sort, PAGE_SORTS);
+        int pageSize = cursorPagination.resolveSize(size);
+        CursorPagination.Cursor after = cursorPagination.decode(cursor, sortKey);
+        Limit limit = cursorPagination.probeLimit(pageSize);
+
+        List<InventoryRow> rows;
+        if ("sku".equals(sortKey)) {
+            rows = after == null
+                    ? inventoryRepository.findRowPageByWarehouseOrderBySku(warehouseId, limit)
+                    : inventoryRepository.findRowPageByWarehouseOrderBySkuAfter(warehouseId, after.getValue(), after.getId(), limit);
+        } else {
+            rows = after == null
+                    ? inventoryRepository.findRowPageByWarehouseOrderById(warehouseId, limit)
+                    : inventoryRepository.findRowPageByWarehouseOrderByIdAfter(warehouseId, after.getId(), limit);
+        }
+        return cursorPagination.toPage(rows, pageSize, sortKey, InventoryRow::getId, InventoryRow::getSku);
+    }
+
     /**
      * "Search" inventory in warehouse by product name 
+     * Fragments of three or more characters are answered from the trigram index,
+     * shorter ones fall back to a LIKE query. Results are ranked best match first.
+     * Index answers stop at the configured number of candidates, counted among the warehouse's own products
      * @param warehouseId  warehouse id
      * @param nameFragment user search
-     * @return matching entries or empty list if warehouse not found 
+     * @return matching rows or empty list if warehouse not found 
      */
-    public List<Inventory> searchByProductNameInWarehouse(int warehouseId, String nameFragment) {
-        Warehouse warehouse = warehouseService.findWarehouseById(warehouseId);
-        if (warehouse == null) {
+    @Transactional(readOnly = true)
+    public List<InventoryRow> searchByProductNameInWarehouse(int warehouseId, String nameFragment) {
+        if (warehouseService.findWarehouseById(warehouseId) == null) {
             return Collections.emptyList();
         }
         if (nameFragment == null || nameFragment.trim().isEmpty()) {
-            return inventoryRepository.findByWarehouse(warehouse);
+            return inventoryRepository.findRowsByWarehouse(warehouseId);
+        }
+        String fragment = nameFragment.trim();
+        if (productSearchIndex.canSearch(fragment)) {
+            return findRanked(warehouseId, productSearchIndex.searchNames(fragment, stockedIn(warehouseId)));
         }
-        return inventoryRepository.findByWarehouseAndProduct_NameContainingIgnoreCase(
-                warehouse,
-                nameFragment.trim()
+        List<InventoryRow> matches = inventoryRepository.findRowsByWarehouseAndNameContaining(
+                warehouseId,
+                escapeLike(fragment)
         );
+        return sortByRank(matches, InventoryRow::getName, fragment);
     }
 
     /**
      * "Search" inventory in warehouse by SKU
+     * Fragments of three or more characters are answered from the trigram index,
+     * shorter ones fall back to a LIKE query. Results are ranked best match first.
+     * Index answers stop at the configured number of candidates, as for searchByProductNameInWarehouse
      * @param warehouseId warehouse id
      * @param skuFragment user search
-     * @return matching entries or empty list if warehouse not found
+     * @return matching rows or empty list if warehouse not found
      */
-    public List<Inventory> searchBySkuInWarehouse(int warehouseId, String skuFragment) {
-        Warehouse warehouse = warehouseService.findWarehouseById(warehouseId);
-        if (warehouse == null) {
+    @Transactional(readOnly = true)
+    public List<InventoryRow> searchBySkuInWarehouse(int warehouseId, String skuFragment) {
+        if (warehouseService.findWarehouseById(warehouseId) == null) {
             return Collections.emptyList();
         }
         if (skuFragment == null || skuFragment.trim().isEmpty()) {
-            return inventoryRepository.findByWarehouse(warehouse);
+            return inventoryRepository.findRowsByWarehouse(warehouseId);
+        }
+        String fragment = skuFragment.trim();
+        if (productSearchIndex.canSearch(fragment)) {
+            return findRanked(warehouseId, productSearchIndex.searchSkus(fragment, stockedIn(warehouseId)));
         }
-        return inventoryRepository.findByWarehouseAndProduct_SkuContainingIgnoreCase(
-                warehouse,
-                skuFragment.trim()
+        List<InventoryRow> matches = inventoryRepository.findRowsByWarehouseAndSkuContaining(
+                warehouseId,
+                escapeLike(fragment)
         );
+        return sortByRank(matches, InventoryRow::getSku, fragment);
+    }
+
+    /**
+     * Product ids with a row in the warehouse, read only when the index has more matches than it returns,
+     * so the cut to the candidate limit never drops a matching row of this warehouse for one elsewhere
+     */
+    private Supplier<Set<Integer>> stockedIn(int warehouseId) {
+        return () -> new HashSet<>(inventoryRepository.findProductIdsByWarehouse(warehouseId));
+    }
+
+    /**
+     * Loads the warehouse rows for ranked product ids and keeps the index ranking
+     */
+    private List<InventoryRow> findRanked(int warehouseId, List<Integer> rankedProductIds) {
+        if (rankedProductIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Integer, Integer> position = new HashMap<>();
+        for (int i = 0; i < rankedProductIds.size(); i++) {
+            position.put(rankedProductIds.get(i), i);
+        }
+        List<InventoryRow> rows = new ArrayList<>(
+                inventoryRepository.findRowsByWarehouseAndProductIds(warehouseId, rankedProductIds));
+        rows.sort(Comparator.comparingInt(row -> position.get(row.getProductId())));
+        return rows;
+    }
+
+    private List<InventoryRow> sortByRank(List<InventoryRow> rows, Function<InventoryRow, String> field, String fragment) {
+        List<InventoryRow> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.<InventoryRow>comparingInt(row -> ProductSearchIndex.rank(field.apply(row), fragment))
+                .thenComparingInt(row -> field.apply(row).length()));
+        return sorted;
+    }
+
+    private static String escapeLike(String fragment) {
+        return fragment.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     /**
@@ -95,6 +240,9 @@ public class InventoryService {
      * Create if it does not already exist 
      * Rules: warehouse has to exist, quantity can't be less than 0, warehouse must have remaining capacity for new quantity, 
      * if inventory row in this warehouse exists for product, quantity increased 
+     * The quantity is appended to the inventory journal as a receipt instead of updating the row.
+     * A new row is inserted, or an existing row locked for a new storage location, before the
+     * warehouse capacity is reserved, so the inventory row is always locked before the warehouse row
      * @param warehouseId     warehouse id 
      * @param sku             product SKU
      * @param name            product name 
@@ -123,10 +271,6 @@ public class InventoryService {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
 
-        if (!warehouseService.hasCapacityFor(warehouseId, quantity)) {
-            throw new IllegalStateException("Warehouse capacity exceeded for warehouse id " + warehouseId);
-        }
-
         Product product = productService.findOrCreateProductBySku(
                 sku,
                 name,
@@ -134,77 +278,178 @@ public class InventoryService {
                 category
         );
 
-        Optional<Inventory> existingOpt =
-                inventoryRepository.findByWarehouseAndProduct(warehouse, product);
-
-        Inventory inventory;
-        if (existingOpt.isPresent()) {
-            inventory = existingOpt.get();
-            inventory.setQuantity(inventory.getQuantity() + quantity);
-            if (storageLocation != null) {
-                inventory.setStorageLocation(storageLocation);
-            }
-        } else {
-            inventory = new Inventory();
-            inventory.setWarehouse(warehouse);
-            inventory.setProduct(product);
-            inventory.setQuantity(quantity);
+        Inventory inventory = inventoryRepository.findByWarehouseAndProduct(warehouse, product).orElse(null);
+        boolean created = inventory == null;
+        if (created) {
+            inventory = inventoryRepository.saveAndFlush(new Inventory(warehouse, product, 0, storageLocation));
+        } else if (storageLocation != null && !storageLocation.equals(inventory.getStorageLocation())) {
+            inventory = inventoryRepository.findByIdForUpdate(inventory.getId()).orElseThrow();
             inventory.setStorageLocation(storageLocation);
         }
 
-        return inventoryRepository.save(inventory);
+        warehouseService.reserveCapacity(warehouseId, quantity);
+
+        if (quantity > 0) {
+            inventoryJournal.append(warehouseId, product.getId(), quantity, MovementReason.RECEIPT);
+        }
+        rowChanged(created ? InventoryEvent.Type.CREATED : InventoryEvent.Type.UPDATED,
+                warehouseId, inventory.getId(), product.getId(), quantity, inventory.getStorageLocation());
+        return inventoryJournal.withPending(inventory);
     }
 
     /**
      * Update quantity and storage location for existing inventory row
+     * Uses optimistic versioning instead of a row lock: the row is read, written with a version
+     * check and flushed before the warehouse load changes by the difference, so like every other
+     * write path it locks the inventory row before the warehouse row. The pending journal movements
+     * of the row are folded into it and the change is journaled as an applied adjustment. A version
+     * conflict with a concurrent writer or the compactor is retried in a new transaction up to the
+     * configured number of attempts
      * @param inventoryId        inventory row id 
      * @param newQuantity        new quantity 
      * @param newStorageLocation new storage location
+     * @param expectedVersion    version the client last read, or null to overwrite whatever is stored
      * @return the updated Inventory entity
      * @throws IllegalArgumentException if the inventory row is not found or quantity is negative
-     * @throws IllegalStateException    if the update would exceed warehouse capacity
+     * @throws IllegalStateException    if the update would exceed warehouse capacity, expectedVersion
+     *                                  is stale, or the row kept changing for every attempt
      */
-    @Transactional
     public Inventory updateInventory(int inventoryId,
                                      int newQuantity,
-                                     String newStorageLocation) {
-
-        Inventory existing = findById(inventoryId);
-        if (existing == null) {
-            throw new IllegalArgumentException("Inventory with id " + inventoryId + " not found");
-        }
+                                     String newStorageLocation,
+                                     Long expectedVersion) {
 
         if (newQuantity < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
         }
 
-        Warehouse warehouse = existing.getWarehouse();
-        int warehouseId = warehouse.getId();
-
-        int currentLoad = warehouseService.getCurrentWarehouseLoad(warehouseId);
-        int loadWithoutThisRow = currentLoad - existing.getQuantity();
-        int projectedLoad = loadWithoutThisRow + newQuantity;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status ->
+                        replaceInventory(inventoryId, newQuantity, newStorageLocation, expectedVersion));
+            } catch (OptimisticLockingFailureException e) {
+                Counter.builder("inventory.update.conflicts")
+                        .description("Inventory updates that lost a version check to a concurrent writer")
+                        .register(meterRegistry)
+                        .increment();
+                if (attempt >= maxUpdateAttempts) {
+                    throw new IllegalStateException("Inventory with id " + inventoryId
+                            + " is being changed concurrently, try again");
+                }
+            }
+        }
+    }
 
-        if (projectedLoad > warehouse.getMax_capacity()) {
-            throw new IllegalStateException("Updating quantity would exceed warehouse capacity");
+    private Inventory replaceInventory(int inventoryId, int newQuantity, String newStorageLocation, Long expectedVersion) {
+        Inventory existing = inventoryRepository.findWithProductById(inventoryId).orElse(null);
+        if (existing == null) {
+            throw new IllegalArgumentException("Inventory with id " + inventoryId + " not found");
+        }
+        if (expectedVersion != null && expectedVersion != existing.getVersion()) {
+            throw new IllegalStateException("Inventory with id " + inventoryId + " was modified, current version is "
+                    + existing.getVersion());
         }
 
+        List<InventoryMovement> pending = inventoryJournal.findPending(existing);
+        int available = existing.getQuantity() + sumDeltas(pending);
+        int delta = newQuantity - available;
         existing.setQuantity(newQuantity);
         existing.setStorageLocation(newStorageLocation);
+        Inventory saved = inventoryRepository.saveAndFlush(existing);
+        inventoryJournal.markApplied(pending);
+
+        int warehouseId = existing.getWarehouse().getId();
+        if (delta != 0) {
+            inventoryJournal.record(warehouseId, existing.getProduct().getId(), delta, MovementReason.ADJUSTMENT);
+        }
+        try {
+            warehouseService.adjustCurrentLoad(warehouseId, delta);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException("Updating quantity would exceed warehouse capacity");
+        }
+        rowChanged(InventoryEvent.Type.UPDATED, warehouseId, inventoryId, existing.getProduct().getId(),
+                delta, newStorageLocation);
+        return inventoryJournal.withPending(saved);
+    }
+
+    /**
+     * Reports a change of one inventory row to the low-stock tracker and the warehouse event stream,
+     * both of which act on it once the transaction commits
+     */
+    private void rowChanged(InventoryEvent.Type type, int warehouseId, int inventoryId, int productId,
+                            int delta, String storageLocation) {
+        lowStockService.touched(warehouseId, productId);
+        inventoryEvents.publish(new InventoryEvent(type, warehouseId, inventoryId, productId, delta, storageLocation));
+    }
 
-        return inventoryRepository.save(existing);
+    private static int sumDeltas(List<InventoryMovement> movements) {
+        int sum = 0;
+        for (InventoryMovement movement : movements) {
+            sum += movement.getDelta();
+        }
+        return sum;
+    }
+
+    /**
+     * Adds a signed delta to the quantity of an inventory row
+     * The change is appended to the inventory journal. Additions reserve capacity and append
+     * without locking the row. Removals lock the row first, so two removals cannot both pass
+     * the check against the quantity plus pending movements and take it below zero
+     * @param inventoryId inventory row id
+     * @param delta       quantity to add, negative to remove
+     * @return the updated Inventory entity
+     * @throws IllegalArgumentException if the inventory row is not found
+     * @throws IllegalStateException    if the quantity would become negative or the warehouse capacity is exceeded
+     */
+    @Transactional
+    public Inventory applyQuantityDelta(int inventoryId, int delta) {
+        Inventory row = (delta < 0
+                ? inventoryRepository.findByIdForWithdrawal(inventoryId)
+                : inventoryRepository.findWithProductById(inventoryId))
+                .orElseThrow(() -> new IllegalArgumentException("Inventory with id " + inventoryId + " not found"));
+        int warehouseId = row.getWarehouse().getId();
+        int productId = row.getProduct().getId();
+
+        if (delta > 0) {
+            try {
+                warehouseService.reserveCapacity(warehouseId, delta);
+            } catch (IllegalStateException e) {
+                throw new IllegalStateException("Adding quantity would exceed warehouse capacity");
+            }
+            inventoryJournal.append(warehouseId, productId, delta, MovementReason.ADJUSTMENT);
+        } else if (delta < 0) {
+            if (row.getQuantity() + inventoryJournal.pendingQuantity(warehouseId, productId) + delta < 0) {
+                throw new IllegalStateException("Quantity cannot go below zero");
+            }
+            inventoryJournal.append(warehouseId, productId, delta, MovementReason.ADJUSTMENT);
+            warehouseService.releaseCapacity(warehouseId, -delta);
+        }
+        if (delta != 0) {
+            rowChanged(InventoryEvent.Type.UPDATED, warehouseId, inventoryId, productId, delta, row.getStorageLocation());
+        }
+        return inventoryJournal.withPending(row);
     }
 
     /**
      * Delete inventory row if it exists
+     * Pending journal movements of the row are folded first and the removal is journaled
      * @param inventoryId inventory row id 
      */
     @Transactional
     public void deleteInventoryById(int inventoryId) {
-        if (!inventoryRepository.existsById(inventoryId)) {
+        Inventory existing = inventoryRepository.findByIdForUpdate(inventoryId).orElse(null);
+        if (existing == null) {
             return;
         }
-        inventoryRepository.deleteById(inventoryId);
+        List<InventoryMovement> pending = inventoryJournal.findPending(existing);
+        inventoryJournal.markApplied(pending);
+        int quantity = existing.getQuantity() + sumDeltas(pending);
+        int warehouseId = existing.getWarehouse().getId();
+
+        inventoryJournal.record(warehouseId, existing.getProduct().getId(), -quantity, MovementReason.REMOVAL);
+        warehouseService.releaseCapacity(warehouseId, quantity);
+        inventoryRepository.delete(existing);
+        rowChanged(InventoryEvent.Type.DELETED, warehouseId, inventoryId, existing.getProduct().getId(), -quantity, null);
     }
 
     /**
@@ -212,6 +457,10 @@ public class InventoryService {
      * Rules: transfer quantity positive, source inventory exists and belongs to source warehouse,
      * source inventory row has enough quantity to transfer, destination warehouse exists and has capacity,
      * if inventory row exists in destination warehouse, quantity increased 
+     * Only the source row is locked. A missing destination row is inserted next, then the warehouse loads
+     * are moved in ascending warehouse id order, so both inventory rows are locked before any warehouse,
+     * and both sides are appended to the inventory journal
+     * Rejected transfers are counted in inventory.transfer.failures, tagged by reason
      * @param sourceInventoryId id of the inventory row in the source warehouse
      * @param fromWarehouseId   id of the source warehouse
      * @param toWarehouseId     id of the destination warehouse
@@ -229,52 +478,452 @@ public class InventoryService {
                                   int quantityToTransfer) {
 
         if (quantityToTransfer <= 0) {
-            throw new IllegalArgumentException("Transfer quantity must be positive");
+            throw transferFailed("invalid_quantity", new IllegalArgumentException("Transfer quantity must be positive"));
         }
 
-        Inventory source = findById(sourceInventoryId);
-        if (source == null) {
-            throw new IllegalArgumentException("Inventory row with id " + sourceInventoryId + " not found");
+        Product product = inventoryRepository.findProductByInventoryId(sourceInventoryId).orElse(null);
+        if (product == null) {
+            throw transferFailed("not_found",
+                    new IllegalArgumentException("Inventory row with id " + sourceInventoryId + " not found"));
         }
 
         Warehouse fromWarehouse = warehouseService.findWarehouseById(fromWarehouseId);
         Warehouse toWarehouse = warehouseService.findWarehouseById(toWarehouseId);
 
         if (fromWarehouse == null || toWarehouse == null) {
-            throw new IllegalArgumentException("Source or destination warehouse not found");
+            throw transferFailed("not_found", new IllegalArgumentException("Source or destination warehouse not found"));
         }
 
-        if (source.getWarehouse() == null || source.getWarehouse().getId() != fromWarehouseId) {
-            throw new IllegalStateException("Inventory row is not in the source warehouse");
+        Inventory source = inventoryRepository.findByIdForWithdrawal(sourceInventoryId).orElse(null);
+        if (source == null || source.getWarehouse().getId() != fromWarehouseId) {
+            throw transferFailed("wrong_warehouse", new IllegalStateException("Inventory row is not in the source warehouse"));
         }
 
-        if (source.getQuantity() < quantityToTransfer) {
-            throw new IllegalStateException("Not enough quantity to transfer");
+        int available = source.getQuantity() + inventoryJournal.pendingQuantity(fromWarehouseId, product.getId());
+        if (available < quantityToTransfer) {
+            throw transferFailed("insufficient_quantity", new IllegalStateException("Not enough quantity to transfer"));
         }
 
-        if (!warehouseService.hasCapacityFor(toWarehouseId, quantityToTransfer)) {
-            throw new IllegalStateException("Destination warehouse does not have enough capacity");
+        Inventory destination = inventoryRepository.findByWarehouseAndProduct(toWarehouse, product).orElse(null);
+        if (destination == null) {
+            destination = inventoryRepository.saveAndFlush(new Inventory(toWarehouse, product, 0, source.getStorageLocation()));
         }
 
-        source.setQuantity(source.getQuantity() - quantityToTransfer);
-        inventoryRepository.save(source);
+        try {
+            warehouseService.moveLoad(fromWarehouseId, toWarehouseId, quantityToTransfer);
+        } catch (IllegalStateException e) {
+            throw transferFailed("capacity", new IllegalStateException("Destination warehouse does not have enough capacity"));
+        }
 
-        Product product = source.getProduct();
-        Optional<Inventory> destinationOpt =
-                inventoryRepository.findByWarehouseAndProduct(toWarehouse, product);
+        inventoryJournal.append(fromWarehouseId, product.getId(), -quantityToTransfer, MovementReason.TRANSFER_OUT);
+        inventoryJournal.append(toWarehouseId, product.getId(), quantityToTransfer, MovementReason.TRANSFER_IN);
+        rowChanged(InventoryEvent.Type.TRANSFER_OUT, fromWarehouseId, sourceInventoryId, product.getId(),
+                -quantityToTransfer, source.getStorageLocation());
+        rowChanged(InventoryEvent.Type.TRANSFER_IN, toWarehouseId, destination.getId(), product.getId(),
+                quantityToTransfer, destination.getStorageLocation());
+    }
 
-        Inventory destination;
-        if (destinationOpt.isPresent()) {
-            destination = destinationOpt.get();
-            destination.setQuantity(destination.getQuantity() + quantityToTransfer);
-        } else {
-            destination = new Inventory();
-            destination.setWarehouse(toWarehouse);
-            destination.setProduct(product);
-            destination.setQuantity(quantityToTransfer);
-            destination.setStorageLocation(source.getStorageLocation());
+    /**
+     * Counts a rejected transfer in the inventory.transfer.failures metric
+     * @return the exception, for the caller to throw
+     */
+    private RuntimeException transferFailed(String reason, RuntimeException exception) {
+        countTransferFailure(reason);
+        return exception;
+    }
+
+    private void countTransferFailure(String reason) {
+        Counter.builder("inventory.transfer.failures")
+                .description("Transfers rejected by validation, stock or capacity checks")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Applies many transfer lines in one transaction and reports the outcome of each line
+     * Lines run in request order against running quantities, so a line may move stock
+     * that an earlier line of the same batch delivered. A failed line changes nothing.
+     * Quantities include pending journal movements, and each successful line is journaled as a transfer.
+     * All inventory rows of the batch's products in the batch's warehouses are locked first,
+     * in ascending warehouse id then product id order, then the destination rows a line may need are inserted,
+     * then the warehouses in ascending id order, so batches and single transfers always take locks
+     * in the same order and cannot deadlock. Inserted rows that no line ends up using are deleted again.
+     * Capacity is checked per destination on the net change of the whole batch. While a warehouse
+     * would overflow, its latest line fails and the batch is planned again, so earlier lines win.
+     * Failed lines are counted in inventory.transfer.failures like single transfers
+     * @param lines transfer lines
+     * @return one result per line, in request order
+     * @throws IllegalArgumentException if there are no lines, a line is null, or there are more lines than allowed
+     */
+    @Transactional
+    public BatchTransferResult transferBatch(List<TransferLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Batch transfer needs at least one line");
+        }
+        if (lines.size() > maxBatchTransferLines) {
+            throw new IllegalArgumentException("Batch transfer accepts at most " + maxBatchTransferLines + " lines");
         }
 
-        inventoryRepository.save(destination);
+        Set<String> skus = new HashSet<>();
+        Set<Integer> warehouseIds = new TreeSet<>();
+        for (TransferLine line : lines) {
+            if (line == null) {
+                throw new IllegalArgumentException("Batch transfer lines cannot be null");
+            }
+            if (line.getSku() != null && !line.getSku().trim().isEmpty()) {
+                skus.add(ProductService.normalizeSku(line.getSku()));
+            }
+            warehouseIds.add(line.getFromWarehouseId());
+            warehouseIds.add(line.getToWarehouseId());
+        }
+
+        Map<String, Product> products = productService.findBySkusForWrite(skus);
+
+        Map<Long, Inventory> rows = new HashMap<>();
+        Map<Long, Integer> pending = new HashMap<>();
+        if (!products.isEmpty()) {
+            Set<Integer> productIds = new TreeSet<>();
+            for (Product product : products.values()) {
+                productIds.add(product.getId());
+            }
+            for (Inventory row : inventoryRepository.findByWarehouseIdsAndProductIdsForWithdrawal(warehouseIds, productIds)) {
+                rows.put(InventoryJournal.stockKey(row.getWarehouse().getId(), row.getProduct().getId()), row);
+            }
+            pending = inventoryJournal.pendingQuantities(warehouseIds, productIds);
+        }
+        Map<Long, Inventory> created = createDestinationRows(lines, products, rows);
+        Map<Integer, Warehouse> warehouses = warehouseService.lockWarehouses(warehouseIds);
+
+        Set<Integer> capacityRejected = new HashSet<>();
+        TransferPlan plan;
+        while (true) {
+            plan = planTransfers(lines, products, rows, pending, warehouses, capacityRejected);
+            Set<Integer> overfull = new HashSet<>();
+            for (Map.Entry<Integer, Integer> entry : plan.netChange.entrySet()) {
+                Warehouse warehouse = warehouses.get(entry.getKey());
+                if (entry.getValue() > 0 && entry.getValue() > warehouse.getMax_capacity() - warehouse.getCurrentLoad()) {
+                    overfull.add(entry.getKey());
+                }
+            }
+            if (overfull.isEmpty()) {
+                break;
+            }
+            for (int i = lines.size() - 1; i >= 0 && !overfull.isEmpty(); i--) {
+                if (plan.failures[i] == null && overfull.remove(lines.get(i).getToWarehouseId())) {
+                    capacityRejected.add(i);
+                }
+            }
+        }
+
+        List<Inventory> unused = new ArrayList<>();
+        for (Map.Entry<Long, Inventory> entry : created.entrySet()) {
+            Inventory row = entry.getValue();
+            if (plan.newRowLocations.containsKey(entry.getKey())) {
+                row.setStorageLocation(plan.newRowLocations.get(entry.getKey()));
+                rows.put(entry.getKey(), row);
+            } else {
+                unused.add(row);
+            }
+        }
+        inventoryRepository.deleteAll(unused);
+
+        List<InventoryMovement> movements = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (plan.failures[i] == null) {
+                TransferLine line = lines.get(i);
+                int productId = products.get(ProductService.normalizeSku(line.getSku())).getId();
+                movements.add(new InventoryMovement(line.getFromWarehouseId(), productId, -line.getQuantity(),
+                        MovementReason.TRANSFER_OUT, false));
+                movements.add(new InventoryMovement(line.getToWarehouseId(), productId, line.getQuantity(),
+                        MovementReason.TRANSFER_IN, false));
+            }
+        }
+        inventoryJournal.appendAll(movements);
+        for (InventoryMovement movement : movements) {
+            Inventory row = rows.get(InventoryJournal.stockKey(movement.getWarehouseId(), movement.getProductId()));
+            rowChanged(movement.getReason() == MovementReason.TRANSFER_OUT
+                            ? InventoryEvent.Type.TRANSFER_OUT : InventoryEvent.Type.TRANSFER_IN,
+                    movement.getWarehouseId(), row.getId(), movement.getProductId(), movement.getDelta(),
+                    row.getStorageLocation());
+        }
+
+        for (Map.Entry<Integer, Integer> entry : new TreeMap<>(plan.netChange).entrySet()) {
+            warehouseService.adjustCurrentLoad(entry.getKey(), entry.getValue());
+        }
+
+        BatchTransferResult result = new BatchTransferResult();
+        result.setTotalLines(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            boolean transferred = plan.failures[i] == null;
+            if (transferred) {
+                result.setTransferredLines(result.getTransferredLines() + 1);
+            } else {
+                result.setFailedLines(result.getFailedLines() + 1);
+                countTransferFailure(plan.failureReasons[i]);
+            }
+            result.getResults().add(new TransferLineResult(i + 1, lines.get(i), transferred, plan.failures[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Inserts, in stock key order, an empty row for every destination of a line that has no row yet,
+     * before the warehouses are locked. Capacity may fail lines later and let other lines succeed,
+     * so this covers every line that names a known product and two different warehouses.
+     * A new row takes the storage location of the source row, as in planTransfers
+     * @return the inserted rows by stock key
+     */
+    private Map<Long, Inventory> createDestinationRows(List<TransferLine> lines,
+                                                      Map<String, Product> products,
+                                                      Map<Long, Inventory> rows) {
+        Map<Long, Inventory> created = new TreeMap<>();
+        Map<Integer, Warehouse> destinations = new HashMap<>();
+        for (TransferLine line : lines) {
+            Product product = line.getSku() == null ? null : products.get(ProductService.normalizeSku(line.getSku()));
+            int from = line.getFromWarehouseId();
+            int to = line.getToWarehouseId();
+            if (product == null || line.getQuantity() <= 0 || from == to) {
+                continue;
+            }
+            long toKey = InventoryJournal.stockKey(to, product.getId());
+            if (rows.containsKey(toKey) || created.containsKey(toKey)) {
+                continue;
+            }
+            Warehouse destination = destinations.computeIfAbsent(to, warehouseService::findWarehouseById);
+            if (destination == null) {
+                continue;
+            }
+            long fromKey = InventoryJournal.stockKey(from, product.getId());
+            Inventory source = rows.containsKey(fromKey) ? rows.get(fromKey) : created.get(fromKey);
+            created.put(toKey, new Inventory(destination, product, 0, source == null ? null : source.getStorageLocation()));
+        }
+        inventoryRepository.saveAllAndFlush(created.values());
+        return created;
+    }
+
+    /**
+     * Runs the batch lines in order against the locked quantities without writing anything
+     * @param pending          pending journal sums by stock key
+     * @param capacityRejected indexes of lines already failed for destination capacity
+     */
+    private TransferPlan planTransfers(List<TransferLine> lines,
+                                       Map<String, Product> products,
+                                       Map<Long, Inventory> rows,
+                                       Map<Long, Integer> pending,
+                                       Map<Integer, Warehouse> warehouses,
+                                       Set<Integer> capacityRejected) {
+        TransferPlan plan = new TransferPlan(lines.size());
+        for (Map.Entry<Long, Inventory> entry : rows.entrySet()) {
+            plan.stock.put(entry.getKey(), entry.getValue().getQuantity() + pending.getOrDefault(entry.getKey(), 0));
+        }
+
+        for (int i = 0; i < lines.size(); i++) {
+            TransferLine line = lines.get(i);
+            int from = line.getFromWarehouseId();
+            int to = line.getToWarehouseId();
+            int quantity = line.getQuantity();
+            Product product = line.getSku() == null ? null : products.get(ProductService.normalizeSku(line.getSku()));
+
+            if (capacityRejected.contains(i)) {
+                plan.fail(i, "capacity", "Destination warehouse does not have enough capacity for this batch");
+            } else if (quantity <= 0) {
+                plan.fail(i, "invalid_quantity", "Transfer quantity must be positive");
+            } else if (from == to) {
+                plan.fail(i, "invalid_quantity", "Source and destination warehouse must be different");
+            } else if (product == null) {
+                plan.fail(i, "not_found", "Product with SKU " + line.getSku() + " not found");
+            } else if (!warehouses.containsKey(from) || !warehouses.containsKey(to)) {
+                plan.fail(i, "not_found", "Source or destination warehouse not found");
+            } else {
+                long fromKey = InventoryJournal.stockKey(from, product.getId());
+                long toKey = InventoryJournal.stockKey(to, product.getId());
+                Integer available = plan.stock.get(fromKey);
+                if (available == null) {
+                    plan.fail(i, "not_found", "No inventory for SKU " + line.getSku() + " in warehouse " + from);
+                } else if (available < quantity) {
+                    plan.fail(i, "insufficient_quantity", "Not enough quantity to transfer");
+                } else {
+                    plan.stock.put(fromKey, available - quantity);
+                    plan.stock.merge(toKey, quantity, Integer::sum);
+                    plan.netChange.merge(from, -quantity, Integer::sum);
+                    plan.netChange.merge(to, quantity, Integer::sum);
+                    if (!rows.containsKey(toKey) && !plan.newRowLocations.containsKey(toKey)) {
+                        Inventory source = rows.get(fromKey);
+                        plan.newRowLocations.put(toKey,
+                                source != null ? source.getStorageLocation() : plan.newRowLocations.get(fromKey));
+                    }
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Outcome of one planning pass over a batch transfer:
+     * final quantity per (warehouse, product) key, net load change per warehouse
+     * and the failure message of each line, null if the line goes through
+     */
+    private static class TransferPlan {
+
+        final Map<Long, Integer> stock = new HashMap<>();
+        final Map<Integer, Integer> netChange = new HashMap<>();
+        final Map<Long, String> newRowLocations = new HashMap<>();
+        final String[] failures;
+        final String[] failureReasons;
+
+        TransferPlan(int lineCount) {
+            failures = new String[lineCount];
+            failureReasons = new String[lineCount];
+        }
+
+        void fail(int index, String reason, String message) {
+            failures[index] = message;
+            failureReasons[index] = reason;
+        }
+    }
+
+    /**
+     * Imports one chunk of bulk import lines in a single transaction
+     * SKUs are resolved with one query and missing products created with one saveAll. Existing rows are read
+     * without locks and only the rows that get a new storage location are locked, with one query. Missing rows
+     * are inserted before capacity is reserved once for the whole chunk, so inventory rows are locked before
+     * the warehouse as on every other write path. Every line is appended to the inventory journal as an import.
+     * A chunk that does not fit is rolled back as a whole, including the products and rows it created
+     * @param warehouseId warehouse id
+     * @param lines       parsed import lines
+     * @return errors for the lines that were rejected, empty if every line was imported
+     * @throws IllegalArgumentException if the warehouse does not exist
+     */
+    @Transactional
+    public List<BulkImportLineError> importChunk(int warehouseId, List<InventoryImportLine> lines) {
+        Warehouse warehouse = warehouseService.findWarehouseById(warehouseId);
+        if (warehouse == null) {
+            throw new IllegalArgumentException("Warehouse with id " + warehouseId + " not found");
+        }
+
+        List<BulkImportLineError> errors = new ArrayList<>();
+        Map<String, List<InventoryImportLine>> linesBySku = new LinkedHashMap<>();
+        int totalQuantity = 0;
+
+        for (InventoryImportLine line : lines) {
+            InventoryCreateRequest request = line.getRequest();
+            String error = validateImportLine(request);
+            if (error != null) {
+                errors.add(new BulkImportLineError(line.getLineNumber(), request.getSku(), error));
+                continue;
+            }
+            linesBySku.computeIfAbsent(ProductService.normalizeSku(request.getSku()), k -> new ArrayList<>())
+                    .add(line);
+            totalQuantity += request.getQuantity();
+        }
+
+        if (linesBySku.isEmpty()) {
+            return errors;
+        }
+
+        Map<String, Product> products = productService.findBySkusForWrite(linesBySku.keySet());
+
+        Map<Integer, InventoryRow> existingByProductId = new HashMap<>();
+        if (!products.isEmpty()) {
+            Set<Integer> productIds = new TreeSet<>();
+            for (Product product : products.values()) {
+                productIds.add(product.getId());
+            }
+            for (InventoryRow row : inventoryRepository.findRowsByWarehouseAndProductIds(warehouseId, productIds)) {
+                existingByProductId.put(row.getProductId(), row);
+            }
+        }
+
+        List<Product> newProducts = new ArrayList<>();
+        for (Map.Entry<String, List<InventoryImportLine>> entry : linesBySku.entrySet()) {
+            if (!products.containsKey(entry.getKey())) {
+                InventoryCreateRequest first = entry.getValue().get(0).getRequest();
+                Product product = new Product(first.getSku().trim(), first.getName().trim(),
+                        first.getDescription(), first.getCategory());
+                newProducts.add(product);
+                products.put(entry.getKey(), product);
+            }
+        }
+        productService.createProducts(newProducts);
+
+        List<Inventory> newRows = new ArrayList<>();
+        List<InventoryMovement> movements = new ArrayList<>();
+        Map<Integer, Integer> importedByProductId = new HashMap<>();
+        Map<Integer, String> locationChanges = new TreeMap<>();
+        for (Map.Entry<String, List<InventoryImportLine>> entry : linesBySku.entrySet()) {
+            Product product = products.get(entry.getKey());
+            InventoryRow row = existingByProductId.get(product.getId());
+            String location = row == null ? null : row.getStorageLocation();
+            for (InventoryImportLine line : entry.getValue()) {
+                InventoryCreateRequest request = line.getRequest();
+                if (request.getQuantity() > 0) {
+                    movements.add(new InventoryMovement(warehouseId, product.getId(), request.getQuantity(),
+                            MovementReason.IMPORT, false));
+                    importedByProductId.merge(product.getId(), request.getQuantity(), Integer::sum);
+                }
+                if (request.getStorageLocation() != null) {
+                    location = request.getStorageLocation();
+                }
+            }
+            if (row == null) {
+                newRows.add(new Inventory(warehouse, product, 0, location));
+            } else if (location != null && !location.equals(row.getStorageLocation())) {
+                locationChanges.put(product.getId(), location);
+            }
+        }
+        if (!locationChanges.isEmpty()) {
+            for (Inventory row : inventoryRepository.findByWarehouseIdsAndProductIdsForUpdate(
+                    Set.of(warehouseId), locationChanges.keySet())) {
+                row.setStorageLocation(locationChanges.get(row.getProduct().getId()));
+            }
+        }
+        inventoryRepository.saveAllAndFlush(newRows);
+
+        if (!warehouseService.tryReserveCapacity(warehouseId, totalQuantity)) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            for (List<InventoryImportLine> skuLines : linesBySku.values()) {
+                for (InventoryImportLine line : skuLines) {
+                    errors.add(new BulkImportLineError(line.getLineNumber(), line.getRequest().getSku(),
+                            "Warehouse capacity exceeded for warehouse id " + warehouseId));
+                }
+            }
+            return errors;
+        }
+        inventoryJournal.appendAll(movements);
+
+        for (Inventory row : newRows) {
+            int productId = row.getProduct().getId();
+            rowChanged(InventoryEvent.Type.CREATED, warehouseId, row.getId(), productId,
+                    importedByProductId.getOrDefault(productId, 0), row.getStorageLocation());
+        }
+        for (InventoryRow row : existingByProductId.values()) {
+            int productId = row.getProductId();
+            String location = locationChanges.get(productId);
+            if (importedByProductId.containsKey(productId) || location != null) {
+                rowChanged(InventoryEvent.Type.UPDATED, warehouseId, row.getId(), productId,
+                        importedByProductId.getOrDefault(productId, 0),
+                        location != null ? location : row.getStorageLocation());
+            }
+        }
+
+        return errors;
+    }
+
+    /**
+     * Applies the same rules as addInventoryToWarehouse to a single import line
+     * @return error message, or null if the line is valid
+     */
+    private String validateImportLine(InventoryCreateRequest request) {
+        if (request.getSku() == null || request.getSku().trim().isEmpty()) {
+            return "SKU is required";
+        }
+        if (request.getName() == null || request.getName().trim().isEmpty()) {
+            return "Product name is required";
+        }
+        if (request.getQuantity() < 0) {
+            return "Quantity cannot be negative";
+        }
+        return null;
     }
 }
@@ -0,0 +1,379 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstorm.inventory_management.DTO.LowStockItem;
+import com.skillstorm.inventory_management.DTO.StockThresholdRequest;
+import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Model.StockThreshold;
+import com.skillstorm.inventory_management.Repository.StockThresholdRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reorder thresholds and the in-memory set of low-stock rows of every warehouse that has any.
+ * InventoryService reports each warehouse and product a write touched, and once the write commits
+ * the keys are handed to a single low-stock-checker thread. It batches every key queued since its last
+ * pass into one query per warehouse, so the set stays current without scanning, and writers never wait
+ * for a query or for each other. Warehouses without thresholds are skipped before any work is done.
+ * Writes made by other instances are picked up by a full rebuild at startup and on a fixed delay,
+ * which runs on the same thread, so all checks of a warehouse apply in the order they were read.
+ * Rows entering and leaving the set are counted in inventory.lowstock.crossings, tagged by direction.
+ */
+@Service
+public class LowStockService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockService.class);
+
+    private final StockThresholdRepository stockThresholdRepository;
+    private final WarehouseService warehouseService;
+    private final ProductService productService;
+    private final TransactionTemplate refreshTransaction;
+    private final Counter enteredCounter;
+    private final Counter recoveredCounter;
+    private final ExecutorService checker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Integer, WarehouseLowStock> lowStock = new ConcurrentHashMap<>();
+
+    /** products to check by warehouse, guarded by itself together with queuedRebuilds and drainQueued */
+    private final Map<Integer, Set<Integer>> queuedChecks = new HashMap<>();
+    private final Set<Integer> queuedRebuilds = new HashSet<>();
+    private boolean drainQueued;
+
+    public LowStockService(StockThresholdRepository stockThresholdRepository,
+                           WarehouseService warehouseService,
+                           ProductService productService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.stockThresholdRepository = stockThresholdRepository;
+        this.warehouseService = warehouseService;
+        this.productService = productService;
+        // not read-only, so under the replicas profile a check reads the primary the write committed to
+        this.refreshTransaction = new TransactionTemplate(transactionManager);
+        this.enteredCounter = crossings(meterRegistry, "below");
+        this.recoveredCounter = crossings(meterRegistry, "recovered");
+        Gauge.builder("inventory.lowstock.items", lowStock, sets -> sets.values().stream().mapToInt(WarehouseLowStock::size).sum())
+                .description("Inventory rows at or below their reorder level")
+                .register(meterRegistry);
+    }
+
+    private static Counter crossings(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("inventory.lowstock.crossings")
+                .description("Inventory rows that crossed their reorder level")
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the rows of a warehouse at or below their reorder level from memory, ordered by product id
+     * @param warehouseId warehouse id
+     * @return low-stock rows, empty if the warehouse has no thresholds
+     */
+    public List<LowStockItem> findLowStock(int warehouseId) {
+        WarehouseLowStock items = lowStock.get(warehouseId);
+        return items == null ? List.of() : items.snapshot();
+    }
+
+    /**
+     * Lists the reorder thresholds of a warehouse
+     * @param warehouseId warehouse id
+     * @return thresholds ordered by id
+     */
+    @Transactional(readOnly = true)
+    public List<StockThreshold> findThresholds(int warehouseId) {
+        return stockThresholdRepository.findByWarehouseIdOrderById(warehouseId);
+    }
+
+    /**
+     * Creates or replaces the reorder level for a SKU or a department in a warehouse
+     * The low-stock set of the warehouse is rebuilt once the change commits
+     * @param warehouseId warehouse id
+     * @param request     either sku or category, and the reorder level
+     * @return saved threshold
+     * @throws IllegalArgumentException if the warehouse or SKU does not exist, both or neither of
+     *                                  sku and category are set, or the level is missing or negative
+     */
+    @Transactional
+    public StockThreshold saveThreshold(int warehouseId, StockThresholdRequest request) {
+        if (warehouseService.findWarehouseById(warehouseId) == null) {
+            throw new IllegalArgumentException("Warehouse with id " + warehouseId + " not found");
+        }
+        boolean hasSku = request.getSku() != null && !request.getSku().isBlank();
+        if (hasSku == (request.getCategory() != null)) {
+            throw new IllegalArgumentException("Threshold needs either a sku or a category");
+        }
+        if (request.getReorderLevel() == null || request.getReorderLevel() < 0) {
+            throw new IllegalArgumentException("Reorder level must be zero or more");
+        }
+
+        StockThreshold threshold;
+        if (hasSku) {
+            Product product = productService.findBySku(request.getSku());
+            if (product == null) {
+                throw new IllegalArgumentException("Product with SKU " + request.getSku().trim() + " not found");
+            }
+            threshold = stockThresholdRepository.findByWarehouseIdAndProductId(warehouseId, product.getId())
+                    .orElseGet(() -> new StockThreshold(warehouseId, product.getId(), null, 0));
+        } else {
+            threshold = stockThresholdRepository.findByWarehouseIdAndProductIdIsNullAndCategory(warehouseId, request.getCategory())
+                    .orElseGet(() -> new StockThreshold(warehouseId, null, request.getCategory(), 0));
+        }
+        threshold.setReorderLevel(request.getReorderLevel());
+        StockThreshold saved = stockThresholdRepository.save(threshold);
+        afterCommit(() -> queueRebuild(warehouseId));
+        return saved;
+    }
+
+    /**
+     * Deletes a reorder threshold of a warehouse
+     * @param warehouseId warehouse id
+     * @param thresholdId threshold id
+     * @return true if the threshold existed in that warehouse
+     */
+    @Transactional
+    public boolean deleteThreshold(int warehouseId, int thresholdId) {
+        StockThreshold threshold = stockThresholdRepository.findById(thresholdId).orElse(null);
+        if (threshold == null || threshold.getWarehouseId() != warehouseId) {
+            return false;
+        }
+        stockThresholdRepository.delete(threshold);
+        afterCommit(() -> queueRebuild(warehouseId));
+        return true;
+    }
+
+    /**
+     * Records that a write changed the quantity or existence of an inventory row.
+     * Inside a transaction the row is queued once after commit, however often it was touched, and not on rollback.
+     * The check itself runs later on the low-stock-checker thread
+     * @param warehouseId warehouse of the row
+     * @param productId   product of the row
+     */
+    public void touched(int warehouseId, int productId) {
+        if (!lowStock.containsKey(warehouseId)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            queueChecks(warehouseId, Set.of(productId));
+            return;
+        }
+        PendingChecks pending = (PendingChecks) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChecks();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.productIds.computeIfAbsent(warehouseId, id -> new HashSet<>()).add(productId);
+    }
+
+    /**
+     * Queues a reload of the low-stock set of every warehouse with thresholds, and of every tracked
+     * warehouse, so one whose last threshold was deleted elsewhere stops being tracked
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.low-stock.refresh-ms:300000}",
+               fixedDelayString = "${inventory.low-stock.refresh-ms:300000}")
+    public void rebuild() {
+        Set<Integer> warehouseIds = new HashSet<>(stockThresholdRepository.findWarehouseIds());
+        log.info("Tracking low stock in {} warehouses", warehouseIds.size());
+        warehouseIds.addAll(lowStock.keySet());
+        for (int warehouseId : warehouseIds) {
+            queueRebuild(warehouseId);
+        }
+    }
+
+    /**
+     * Stops the checker thread, queued checks are dropped and the next start rebuilds every set
+     */
+    @Override
+    public void close() {
+        checker.shutdownNow();
+    }
+
+    private void queueRebuild(int warehouseId) {
+        synchronized (queuedChecks) {
+            queuedRebuilds.add(warehouseId);
+            scheduleDrain();
+        }
+    }
+
+    private void queueChecks(int warehouseId, Collection<Integer> productIds) {
+        synchronized (queuedChecks) {
+            queuedChecks.computeIfAbsent(warehouseId, id -> new HashSet<>()).addAll(productIds);
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Starts a pass of the checker unless one is already waiting. Keys queued while a pass runs
+     * are left for the next pass, which collects everything queued in the meantime
+     */
+    private void scheduleDrain() {
+        if (!drainQueued) {
+            drainQueued = true;
+            checker.execute(this::drain);
+        }
+    }
+
+    /**
+     * One pass of the checker: takes every queued key, then rebuilds or checks each warehouse with one query
+     */
+    private void drain() {
+        Map<Integer, Set<Integer>> checks;
+        Set<Integer> rebuilds;
+        synchronized (queuedChecks) {
+            checks = new HashMap<>(queuedChecks);
+            rebuilds = new HashSet<>(queuedRebuilds);
+            queuedChecks.clear();
+            queuedRebuilds.clear();
+            drainQueued = false;
+        }
+        for (int warehouseId : rebuilds) {
+            checks.remove(warehouseId);
+            rebuildNow(warehouseId);
+        }
+        checks.forEach(this::refresh);
+    }
+
+    /**
+     * Reloads the low-stock set of one warehouse, or stops tracking it once it has no thresholds left
+     * Only called on the checker thread
+     */
+    private void rebuildNow(int warehouseId) {
+        WarehouseLowStock items = lowStock.computeIfAbsent(warehouseId, id -> new WarehouseLowStock());
+        try {
+            List<LowStockItem> found = refreshTransaction.execute(status ->
+                    stockThresholdRepository.existsByWarehouseId(warehouseId)
+                            ? stockThresholdRepository.findLowStock(warehouseId)
+                            : null);
+            if (found == null) {
+                lowStock.remove(warehouseId);
+                return;
+            }
+            Set<Integer> productIds = new HashSet<>(items.productIds());
+            for (LowStockItem item : found) {
+                productIds.add(item.getProductId());
+            }
+            items.apply(productIds, found);
+        } catch (RuntimeException e) {
+            log.warn("Low-stock rebuild for warehouse {} failed", warehouseId, e);
+        }
+    }
+
+    /**
+     * Checks the given products of one warehouse against the database
+     * Only called on the checker thread, so a check queued after a later commit always applies last
+     */
+    private void refresh(int warehouseId, Collection<Integer> productIds) {
+        WarehouseLowStock items = lowStock.get(warehouseId);
+        if (items == null) {
+            return;
+        }
+        try {
+            items.apply(productIds, refreshTransaction.execute(status ->
+                    stockThresholdRepository.findLowStock(warehouseId, productIds)));
+        } catch (RuntimeException e) {
+            log.warn("Low-stock check for warehouse {} failed, the next rebuild will correct it", warehouseId, e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Rows touched by the current transaction, by warehouse
+     */
+    private class PendingChecks implements TransactionSynchronization {
+
+        private final Map<Integer, Set<Integer>> productIds = new HashMap<>();
+
+        @Override
+        public void afterCommit() {
+            productIds.forEach(LowStockService.this::queueChecks);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LowStockService.this);
+        }
+    }
+
+    /**
+     * Low-stock rows of one warehouse, keyed by product id
+     * Written only by the checker thread, read by any request
+     */
+    private class WarehouseLowStock {
+
+        private final ConcurrentSkipListMap<Integer, LowStockItem> byProductId = new ConcurrentSkipListMap<>();
+
+        int size() {
+            return byProductId.size();
+        }
+
+        Set<Integer> productIds() {
+            return byProductId.keySet();
+        }
+
+        List<LowStockItem> snapshot() {
+            return new ArrayList<>(byProductId.values());
+        }
+
+        /**
+         * Replaces the entries of the checked products with the rows found low
+         * @param checked products that were queried
+         * @param found   rows among them that are at or below their level
+         */
+        void apply(Collection<Integer> checked, List<LowStockItem> found) {
+            Map<Integer, LowStockItem> low = new HashMap<>();
+            for (LowStockItem item : found) {
+                low.put(item.getProductId(), item);
+            }
+            for (int productId : checked) {
+                LowStockItem item = low.get(productId);
+                LowStockItem previous = item == null ? byProductId.remove(productId) : byProductId.put(productId, item);
+                if (previous == null && item != null) {
+                    enteredCounter.increment();
+                } else if (previous != null && item == null) {
+                    recoveredCounter.increment();
+                }
+            }
+        }
+    }
+}
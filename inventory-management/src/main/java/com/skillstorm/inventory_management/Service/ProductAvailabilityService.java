@@ -0,0 +1,76 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.skillstorm.inventory_management.DTO.ProductAvailability;
+import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Repository.InventoryRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cross-warehouse stock of a product for order routing.
+ * Answers come from one query per product and are cached for a short TTL. Every inventory event
+ * committed through this instance drops the entry of its product, so a local change shows up on the next read.
+ * Events are not shared between instances, so a change committed through another instance, like a warehouse
+ * rename, shows up once the TTL expires: inventory.availability.ttl is the staleness bound across instances.
+ * Misses load from the primary, not a replica: a load right after an invalidation must see the change that
+ * caused it, and a lagging replica would put the old stock back in the cache for the whole TTL.
+ * A hit still looks the SKU up through ProductService, which only reads the database on its own cache miss.
+ * Hit and miss counts are published as cache metrics named product.availability.
+ */
+@Service
+public class ProductAvailabilityService {
+
+    private final ProductService productService;
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final Cache<Integer, ProductAvailability> cache;
+
+    public ProductAvailabilityService(ProductService productService,
+                                      InventoryRepository inventoryRepository,
+                                      InventoryEvents inventoryEvents,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${inventory.availability.ttl:5s}") Duration ttl,
+                                      @Value("${inventory.availability.maximum-size:10000}") long maximumSize,
+                                      MeterRegistry meterRegistry) {
+        this.productService = productService;
+        this.inventoryRepository = inventoryRepository;
+        // not read-only, so the replicas profile routes it to the primary
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product.availability");
+        inventoryEvents.addListener(event -> cache.invalidate(event.getProductId()));
+    }
+
+    /**
+     * Returns the warehouses holding a product and its total quantity
+     * @param sku product SKU, case insensitive
+     * @return availability, or empty if no product has this SKU
+     */
+    public Optional<ProductAvailability> findBySku(String sku) {
+        Product product = productService.findBySku(sku);
+        if (product == null) {
+            return Optional.empty();
+        }
+        return Optional.of(cache.get(product.getId(), productId -> load(product)));
+    }
+
+    private ProductAvailability load(Product product) {
+        return primaryTransaction.execute(status -> new ProductAvailability(product.getId(), product.getSku(),
+                product.getName(), inventoryRepository.findAvailabilityByProductId(product.getId())));
+    }
+}
@@ -0,0 +1,139 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.skillstorm.inventory_management.Model.Product;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of products keyed by normalized SKU and by id.
+ * Unknown SKUs and ids are cached as empty entries with a shorter TTL,
+ * so repeated lookups of missing products stop reaching the database. A negative TTL of 0 keeps no
+ * empty entries, which the replicas profile uses because its misses are read from a replica.
+ * ProductService writes new products through after commit, which replaces any empty entry.
+ * Hit, miss and eviction counts are published as cache metrics named product.sku and product.id.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<String, Optional<Product>> bySku;
+    private final Cache<Integer, Optional<Product>> byId;
+
+    public ProductCache(@Value("${inventory.product-cache.maximum-size:100000}") long maximumSize,
+                        @Value("${inventory.product-cache.ttl:10m}") Duration ttl,
+                        @Value("${inventory.product-cache.negative-ttl:30s}") Duration negativeTtl,
+                        MeterRegistry meterRegistry) {
+        this.bySku = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PresenceExpiry<String>(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PresenceExpiry<Integer>(ttl, negativeTtl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bySku, "product.sku");
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "product.id");
+    }
+
+    /**
+     * Returns the cached product for a normalized SKU, loading it on a miss
+     * @param normalizedSku SKU from ProductService.normalizeSku
+     * @param loader        database lookup used on a miss
+     */
+    public Optional<Product> getBySku(String normalizedSku, Function<String, Optional<Product>> loader) {
+        return bySku.get(normalizedSku, loader);
+    }
+
+    /**
+     * Returns a cached product without loading anything
+     * @param normalizedSku SKU from ProductService.normalizeSku
+     * @return the product, or null if the SKU is not cached or is cached as unknown
+     */
+    public Product getCachedBySku(String normalizedSku) {
+        Optional<Product> cached = bySku.getIfPresent(normalizedSku);
+        return cached == null ? null : cached.orElse(null);
+    }
+
+    /**
+     * Returns the cached products for many normalized SKUs, loading all misses with one loader call
+     * @param normalizedSkus SKUs from ProductService.normalizeSku
+     * @param loader         database lookup for the missing SKUs, must return an entry for each of them
+     */
+    public Map<String, Optional<Product>> getAllBySku(Collection<String> normalizedSkus,
+                                                      Function<Set<? extends String>, Map<String, Optional<Product>>> loader) {
+        return bySku.getAll(normalizedSkus, loader);
+    }
+
+    /**
+     * Returns the cached product for an id, loading it on a miss
+     * @param id     product id
+     * @param loader database lookup used on a miss
+     */
+    public Optional<Product> getById(int id, Function<Integer, Optional<Product>> loader) {
+        return byId.get(id, loader);
+    }
+
+    /**
+     * Stores saved products under both keys, replacing empty entries
+     * @param products committed products
+     */
+    public void putAll(Collection<Product> products) {
+        for (Product product : products) {
+            bySku.put(ProductService.normalizeSku(product.getSku()), Optional.of(product));
+            byId.put(product.getId(), Optional.of(product));
+        }
+    }
+
+    public CacheStats skuStats() {
+        return bySku.stats();
+    }
+
+    public CacheStats idStats() {
+        return byId.stats();
+    }
+
+    /**
+     * Expires found products after the regular TTL and empty entries after the negative TTL
+     */
+    private static class PresenceExpiry<K> implements Expiry<K, Optional<Product>> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        PresenceExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(K key, Optional<Product> value, long currentTime) {
+            return value.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Optional<Product> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Optional<Product> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Repository.ProductRepository;
+
+/**
+ * In-memory trigram index over product names and SKUs.
+ * Substring searches look up the rarest trigram of the fragment and only verify the
+ * products in that posting list, instead of a LIKE '%x%' scan of the whole catalog.
+ * The index is rebuilt from the database at startup and on a fixed delay, and
+ * ProductService adds new products to it as they are created.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    static final int GRAM = 3;
+
+    private final ProductRepository productRepository;
+    private final int maxCandidates;
+
+    private volatile GramIndex names = new GramIndex();
+    private volatile GramIndex skus = new GramIndex();
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${inventory.search.max-candidates:1000}") int maxCandidates) {
+        this.productRepository = productRepository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Reloads both indexes from the products table and swaps them in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.search.refresh-ms:300000}",
+               fixedDelayString = "${inventory.search.refresh-ms:300000}")
+    public void rebuild() {
+        GramIndex newNames = new GramIndex();
+        GramIndex newSkus = new GramIndex();
+        for (Object[] row : productRepository.findAllSearchFields()) {
+            int id = (Integer) row[0];
+            newSkus.add(id, (String) row[1]);
+            newNames.add(id, (String) row[2]);
+        }
+        names = newNames;
+        skus = newSkus;
+        log.info("Indexed {} products for search", newNames.size());
+    }
+
+    /**
+     * Adds newly created products to the index
+     * @param products saved products
+     */
+    public void addAll(Collection<Product> products) {
+        GramIndex currentNames = names;
+        GramIndex currentSkus = skus;
+        for (Product product : products) {
+            currentNames.add(product.getId(), product.getName());
+            currentSkus.add(product.getId(), product.getSku());
+        }
+    }
+
+    /**
+     * Returns true if the fragment is long enough to be answered from the index
+     * @param fragment trimmed search text
+     */
+    public boolean canSearch(String fragment) {
+        return fragment != null && fragment.length() >= GRAM;
+    }
+
+    /**
+     * Finds products whose name contains the fragment, best matches first
+     * @param fragment trimmed search text of at least three characters
+     * @param within   ids the caller can use, only asked for when there are more matches than the
+     *                 configured maximum, so the cut keeps the best matches among these ids
+     * @return up to the configured maximum of product ids, ranked
+     */
+    public List<Integer> searchNames(String fragment, Supplier<Set<Integer>> within) {
+        return names.search(normalize(fragment), maxCandidates, within);
+    }
+
+    /**
+     * Finds products whose SKU contains the fragment, best matches first
+     * @param fragment trimmed search text of at least three characters
+     * @param within   ids the caller can use, see searchNames
+     * @return up to the configured maximum of product ids, ranked
+     */
+    public List<Integer> searchSkus(String fragment, Supplier<Set<Integer>> within) {
+        return skus.search(normalize(fragment), maxCandidates, within);
+    }
+
+    /**
+     * Ranks how well a text matches a fragment, lower is better:
+     * exact match, then prefix, then start of a word, then anywhere, earlier positions first
+     * @param text     candidate text
+     * @param fragment search text
+     * @return rank, or -1 if the text does not contain the fragment
+     */
+    public static int rank(String text, String fragment) {
+        return rankNormalized(normalize(text), normalize(fragment));
+    }
+
+    static int rankNormalized(String haystack, String needle) {
+        int position = haystack.indexOf(needle);
+        if (position < 0) {
+            return -1;
+        }
+        if (haystack.length() == needle.length()) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        boolean wordStart = !Character.isLetterOrDigit(haystack.charAt(position - 1));
+        return (wordStart ? 2 : 3) * 1_000 + Math.min(position, 999);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trigram postings for one text field
+     */
+    static class GramIndex {
+
+        private final Map<String, IdList> postings = new ConcurrentHashMap<>();
+        private final Map<Integer, String> texts = new ConcurrentHashMap<>();
+
+        int size() {
+            return texts.size();
+        }
+
+        void add(int id, String text) {
+            String normalized = normalize(text);
+            if (texts.putIfAbsent(id, normalized) != null) {
+                return;
+            }
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i + GRAM <= normalized.length(); i++) {
+                String gram = normalized.substring(i, i + GRAM);
+                if (seen.add(gram)) {
+                    postings.computeIfAbsent(gram, g -> new IdList()).add(id);
+                }
+            }
+        }
+
+        List<Integer> search(String fragment, int limit, Supplier<Set<Integer>> within) {
+            IdList rarest = null;
+            for (int i = 0; i + GRAM <= fragment.length(); i++) {
+                IdList posting = postings.get(fragment.substring(i, i + GRAM));
+                if (posting == null) {
+                    return List.of();
+                }
+                if (rarest == null || posting.size() < rarest.size()) {
+                    rarest = posting;
+                }
+            }
+            if (rarest == null) {
+                return List.of();
+            }
+
+            List<long[]> matches = new ArrayList<>();
+            for (int id : rarest.snapshot()) {
+                String text = texts.get(id);
+                int rank = text == null ? -1 : rankNormalized(text, fragment);
+                if (rank >= 0) {
+                    matches.add(new long[] { rank, text.length(), id });
+                }
+            }
+            if (matches.size() > limit) {
+                Set<Integer> allowed = within.get();
+                matches.removeIf(m -> !allowed.contains((int) m[2]));
+            }
+            matches.sort(Comparator.<long[]>comparingLong(m -> m[0])
+                    .thenComparingLong(m -> m[1])
+                    .thenComparingLong(m -> m[2]));
+
+            List<Integer> ids = new ArrayList<>(Math.min(limit, matches.size()));
+            for (int i = 0; i < matches.size() && i < limit; i++) {
+                ids.add((int) matches.get(i)[2]);
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Append-only list of product ids backed by a primitive array
+     */
+    static class IdList {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        synchronized void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized int[] snapshot() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
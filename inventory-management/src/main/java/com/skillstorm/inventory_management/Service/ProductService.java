@@ -1,22 +1,55 @@
 package com.skillstorm.inventory_management.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.skillstorm.inventory_management.DTO.CursorPage;
 import com.skillstorm.inventory_management.Model.Department;
 import com.skillstorm.inventory_management.Model.Product;
 import com.skillstorm.inventory_management.Repository.ProductRepository;
 
+import io.micrometer.core.annotation.Timed;
+
 @Service
+@Timed("inventory.service")
 public class ProductService {
 
+    private static final Set<String> PAGE_SORTS = Set.of("id", "sku", "name");
+
     private final ProductRepository productRepository;
+    private final CursorPagination cursorPagination;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCache productCache;
+    private final ChangeCounters changeCounters;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          CursorPagination cursorPagination,
+                          ProductSearchIndex productSearchIndex,
+                          ProductCache productCache,
+                          ChangeCounters changeCounters,
+                          PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
+        this.cursorPagination = cursorPagination;
+        this.productSearchIndex = productSearchIndex;
+        this.productCache = productCache;
+        this.changeCounters = changeCounters;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
@@ -25,6 +58,8 @@ public class ProductService {
      * @param name        product name 
      * @param description product description
      * @param category    product category or department
+     * A cached product is reused, but a SKU the cache does not hold or holds as unknown is looked up again
+     * in this write transaction, on the primary, since another instance or transaction may have created it
      * @return existing product if found by SKU, otherwise a newly created product
      * @throws IllegalArgumentException if SKU or name are null or blank
      */
@@ -42,9 +77,9 @@ public class ProductService {
 
         String trimmedSku = sku.trim();
 
-        Optional<Product> existing = productRepository.findBySkuIgnoreCase(trimmedSku);
-        if (existing.isPresent()) {
-            return existing.get();
+        Product existing = findBySkusForWrite(List.of(trimmedSku)).get(normalizeSku(trimmedSku));
+        if (existing != null) {
+            return existing;
         }
 
         Product product = new Product();
@@ -53,28 +88,66 @@ public class ProductService {
         product.setDescription(description);
         product.setCategory(category);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        publishAfterCommit(List.of(saved));
+        return saved;
     }
 
     /**
      * Retrieves all products 
      * @return list of products 
      */
+    @Transactional(readOnly = true)
     public List<Product> findAllProducts() {
     return productRepository.findAll();
     }
 
     /**
-     * Finds a product by primary key
+     * Retrieves one keyset page of products
+     * @param size   page size, or null for the configured default
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param sort   id, sku or name, defaults to id
+     * @return page of products with the cursor of the next page
+     * @throws IllegalArgumentException if size, cursor or sort are invalid
+     */
+    public CursorPage<Product> findProductPage(Integer size, String cursor, String sort) {
+        String sortKey = cursorPagination.resolveSort(sort, PAGE_SORTS);
+        int pageSize = cursorPagination.resolveSize(size);
+        CursorPagination.Cursor after = cursorPagination.decode(cursor, sortKey);
+        Limit limit = cursorPagination.probeLimit(pageSize);
+
+        List<Product> rows = switch (sortKey) {
+            case "sku" -> after == null
+                    ? productRepository.findPageOrderBySku(limit)
+                    : productRepository.findPageOrderBySkuAfter(after.getValue(), after.getId(), limit);
+            case "name" -> after == null
+                    ? productRepository.findPageOrderByName(limit)
+                    : productRepository.findPageOrderByNameAfter(after.getValue(), after.getId(), limit);
+            default -> after == null
+                    ? productRepository.findPageOrderById(limit)
+                    : productRepository.findPageOrderByIdAfter(after.getId(), limit);
+        };
+        return cursorPagination.toPage(rows, pageSize, sortKey, Product::getId,
+                product -> "sku".equals(sortKey) ? product.getSku() : product.getName());
+    }
+
+    /**
+     * Finds a product by primary key, served from the product cache
+     * Not transactional, so a hit neither begins a transaction nor checks out a connection,
+     * only a miss reads the database in its own read-only transaction
      * @param id product id
      * @return product if found, null if doesn't exist 
      */
     public Product findById(int id) {
-        return productRepository.findById(id).orElse(null);
+        return productCache.getById(id, key -> readOnlyTransaction.execute(status ->
+                productRepository.findById(key))).orElse(null);
     }
 
     /**
-     * Finds a product by SKU
+     * Finds a product by SKU, served from the product cache
+     * Unknown SKUs are cached too, so repeated misses do not reach the database, except under the replicas
+     * profile, where the miss is read from a replica that may lag behind the primary.
+     * Like findById, only a miss opens a read-only transaction
      * @param sku SKU value
      * @return Product if found, null if it doesn't exist 
      */
@@ -82,7 +155,124 @@ public class ProductService {
         if (sku == null || sku.trim().isEmpty()) {
             return null;
         }
-        return productRepository.findBySkuIgnoreCase(sku.trim()).orElse(null);
+        return productCache.getBySku(normalizeSku(sku), key -> readOnlyTransaction.execute(status ->
+                productRepository.findBySkuIgnoreCase(key))).orElse(null);
+    }
+
+    /**
+     * Finds many products by SKU, loading every cache miss with a single query
+     * @param skus SKU values, compared case insensitively
+     * @return products keyed by normalized SKU, unknown SKUs are absent from the map
+     */
+    public Map<String, Product> findBySkus(Collection<String> skus) {
+        Map<String, Product> found = new HashMap<>();
+        if (skus == null || skus.isEmpty()) {
+            return found;
+        }
+        List<String> normalized = skus.stream()
+                .map(ProductService::normalizeSku)
+                .distinct()
+                .toList();
+        productCache.getAllBySku(normalized, this::loadBySkus).forEach((key, product) ->
+                product.ifPresent(p -> found.put(key, p)));
+        return found;
+    }
+
+    /**
+     * Finds many products by SKU for a write that creates or refuses the SKUs it does not find
+     * Only products present in the cache are trusted. Every other SKU, including one cached as unknown,
+     * is read in the caller's write transaction, which goes to the primary, so a SKU created since the
+     * miss was cached is neither inserted a second time nor reported as unknown.
+     * Products found this way replace their empty entries
+     * @param skus SKU values, compared case insensitively
+     * @return products keyed by normalized SKU, unknown SKUs are absent from the map
+     */
+    @Transactional
+    public Map<String, Product> findBySkusForWrite(Collection<String> skus) {
+        Map<String, Product> found = new HashMap<>();
+        if (skus == null || skus.isEmpty()) {
+            return found;
+        }
+        Set<String> unresolved = new HashSet<>();
+        for (String sku : skus) {
+            String key = normalizeSku(sku);
+            Product cached = productCache.getCachedBySku(key);
+            if (cached != null) {
+                found.put(key, cached);
+            } else {
+                unresolved.add(key);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            List<Product> loaded = productRepository.findBySkuUpperIn(unresolved);
+            for (Product product : loaded) {
+                found.put(normalizeSku(product.getSku()), product);
+            }
+            // committed by other transactions, this one has not inserted anything yet
+            productCache.putAll(loaded);
+        }
+        return found;
+    }
+
+    /**
+     * Saves a group of new products in one batch
+     * @param products products to create
+     * @return the saved products
+     */
+    @Transactional
+    public List<Product> createProducts(Collection<Product> products) {
+        List<Product> saved = productRepository.saveAll(products);
+        publishAfterCommit(saved);
+        return saved;
+    }
+
+    /**
+     * Cache loader for a batch of SKU misses, one query in a read-only transaction
+     * with an empty entry for every unknown SKU
+     */
+    private Map<String, Optional<Product>> loadBySkus(Set<? extends String> normalizedSkus) {
+        Map<String, Optional<Product>> loaded = new HashMap<>();
+        for (String key : normalizedSkus) {
+            loaded.put(key, Optional.empty());
+        }
+        List<Product> found = readOnlyTransaction.execute(status ->
+                productRepository.findBySkuUpperIn(List.copyOf(normalizedSkus)));
+        for (Product product : found) {
+            loaded.put(normalizeSku(product.getSku()), Optional.of(product));
+        }
+        return loaded;
+    }
+
+    /**
+     * Adds new products to the cache and the search index and moves the catalog change counter
+     * once their transaction commits, so a rollback never leaves an id behind that does not exist in the database
+     */
+    private void publishAfterCommit(List<Product> saved) {
+        if (saved.isEmpty()) {
+            return;
+        }
+        changeCounters.changed(ChangeCounters.Topic.CATALOG);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productCache.putAll(saved);
+            productSearchIndex.addAll(saved);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productCache.putAll(saved);
+                productSearchIndex.addAll(saved);
+            }
+        });
+    }
+
+    /**
+     * Normalizes a SKU for case insensitive lookups
+     * @param sku SKU value
+     * @return trimmed, upper cased SKU
+     */
+    public static String normalizeSku(String sku) {
+        return sku.trim().toUpperCase(Locale.ROOT);
     }
 
 }
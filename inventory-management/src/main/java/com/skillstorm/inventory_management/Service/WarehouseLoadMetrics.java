@@ -0,0 +1,56 @@
+package com.skillstorm.inventory_management.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.inventory_management.Repository.WarehouseRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Publishes per-warehouse gauges for load and max capacity, tagged by warehouse id and name.
+ * The values come from the stored current_load counters in one query, refreshed on a fixed delay,
+ * so scraping the metrics endpoint never touches the database.
+ */
+@Component
+public class WarehouseLoadMetrics {
+
+    private final WarehouseRepository warehouseRepository;
+    private final MultiGauge load;
+    private final MultiGauge capacity;
+
+    public WarehouseLoadMetrics(WarehouseRepository warehouseRepository, MeterRegistry meterRegistry) {
+        this.warehouseRepository = warehouseRepository;
+        this.load = MultiGauge.builder("inventory.warehouse.load")
+                .description("Total inventory quantity stored in the warehouse")
+                .register(meterRegistry);
+        this.capacity = MultiGauge.builder("inventory.warehouse.capacity")
+                .description("Maximum inventory quantity the warehouse can hold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Re-reads every warehouse and replaces the gauge rows, dropping deleted warehouses
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.metrics.warehouse-refresh-ms:15000}",
+               fixedDelayString = "${inventory.metrics.warehouse-refresh-ms:15000}")
+    public void refresh() {
+        List<MultiGauge.Row<?>> loadRows = new ArrayList<>();
+        List<MultiGauge.Row<?>> capacityRows = new ArrayList<>();
+        for (Object[] row : warehouseRepository.findLoadSnapshot()) {
+            Tags tags = Tags.of("warehouse", String.valueOf(row[0]), "name", row[1] == null ? "" : (String) row[1]);
+            loadRows.add(MultiGauge.Row.of(tags, (Integer) row[2]));
+            capacityRows.add(MultiGauge.Row.of(tags, (Integer) row[3]));
+        }
+        load.register(loadRows, true);
+        capacity.register(capacityRows, true);
+    }
+}
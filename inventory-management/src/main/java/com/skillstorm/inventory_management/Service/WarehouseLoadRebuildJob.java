@@ -0,0 +1,36 @@
+package com.skillstorm.inventory_management.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repairs the stored warehouse load counters.
+ * Runs once at startup, so rows written before the counter existed are picked up,
+ * and then on the configured cron schedule to correct any drift.
+ */
+@Component
+public class WarehouseLoadRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(WarehouseLoadRebuildJob.class);
+
+    private final WarehouseService warehouseService;
+
+    public WarehouseLoadRebuildJob(WarehouseService warehouseService) {
+        this.warehouseService = warehouseService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${inventory.warehouse-load.rebuild-cron:0 0 3 * * *}")
+    public void rebuild() {
+        int rebuilt = warehouseService.rebuildAllCurrentLoads();
+        log.info("Rebuilt current load for {} warehouses", rebuilt);
+    }
+}
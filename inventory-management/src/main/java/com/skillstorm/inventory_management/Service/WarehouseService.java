@@ -1,40 +1,147 @@
 package com.skillstorm.inventory_management.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.DTO.CursorPage;
+import com.skillstorm.inventory_management.DTO.WarehouseListItem;
+import com.skillstorm.inventory_management.DTO.WarehouseSummary;
 import com.skillstorm.inventory_management.Model.Warehouse;
-import com.skillstorm.inventory_management.Repository.InventoryRepository;
+import com.skillstorm.inventory_management.Model.WarehouseLoadStripe;
+import com.skillstorm.inventory_management.Repository.WarehouseLoadStripeRepository;
 import com.skillstorm.inventory_management.Repository.WarehouseRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service
+@Timed("inventory.service")
 public class WarehouseService {
 
+    private static final Set<String> PAGE_SORTS = Set.of("id", "name");
+
+    private static final Map<String, Comparator<WarehouseSummary>> SUMMARY_SORTS = Map.of(
+            "id", Comparator.comparingInt(WarehouseSummary::getId),
+            "name", Comparator.comparing(WarehouseSummary::getName, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)),
+            "utilization", Comparator.comparingDouble(WarehouseSummary::getUtilizationPercent),
+            "remaining", Comparator.comparingInt(WarehouseSummary::getRemainingCapacity),
+            "load", Comparator.comparingInt(WarehouseSummary::getCurrentLoad)
+    );
+
     private final WarehouseRepository warehouseRepository;
-    private final InventoryRepository inventoryRepository;
+    private final WarehouseLoadStripeRepository stripeRepository;
+    private final CursorPagination cursorPagination;
+    private final MeterRegistry meterRegistry;
+    private final ChangeCounters changeCounters;
+    private final int loadStripes;
+    private final int stripeGrant;
 
     public WarehouseService(WarehouseRepository warehouseRepository,
-                            InventoryRepository inventoryRepository) {
+                            WarehouseLoadStripeRepository stripeRepository,
+                            CursorPagination cursorPagination,
+                            MeterRegistry meterRegistry,
+                            ChangeCounters changeCounters,
+                            @Value("${inventory.capacity.stripes:8}") int loadStripes,
+                            @Value("${inventory.capacity.stripe-grant:1000}") int stripeGrant) {
         this.warehouseRepository = warehouseRepository;
-        this.inventoryRepository = inventoryRepository;
+        this.stripeRepository = stripeRepository;
+        this.cursorPagination = cursorPagination;
+        this.meterRegistry = meterRegistry;
+        this.changeCounters = changeCounters;
+        this.loadStripes = Math.max(0, loadStripes);
+        this.stripeGrant = Math.max(0, stripeGrant);
     }
 
     /**
      * Returns all warehouses 
      * @return list of all warehouse entities
      */
+    @Transactional(readOnly = true)
     public List<Warehouse> findAllWarehouses() {
         return warehouseRepository.findAll();
     }
 
+    /**
+     * Retrieves one keyset page of warehouses
+     * @param size   page size, or null for the configured default
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param sort   id or name, defaults to id
+     * @return page of warehouses without their load, with the cursor of the next page
+     * @throws IllegalArgumentException if size, cursor or sort are invalid
+     */
+    public CursorPage<WarehouseListItem> findWarehousePage(Integer size, String cursor, String sort) {
+        String sortKey = cursorPagination.resolveSort(sort, PAGE_SORTS);
+        int pageSize = cursorPagination.resolveSize(size);
+        CursorPagination.Cursor after = cursorPagination.decode(cursor, sortKey);
+        Limit limit = cursorPagination.probeLimit(pageSize);
+
+        List<WarehouseListItem> rows;
+        if ("name".equals(sortKey)) {
+            rows = after == null
+                    ? warehouseRepository.findPageOrderByName(limit)
+                    : warehouseRepository.findPageOrderByNameAfter(after.getValue(), after.getId(), limit);
+        } else {
+            rows = after == null
+                    ? warehouseRepository.findPageOrderById(limit)
+                    : warehouseRepository.findPageOrderByIdAfter(after.getId(), limit);
+        }
+        return cursorPagination.toPage(rows, pageSize, sortKey, WarehouseListItem::getId, WarehouseListItem::getName);
+    }
+
+    /**
+     * Capacity summary of all warehouses, read with a single aggregate query
+     * @param name           only warehouses whose name contains this text, or null for all
+     * @param minUtilization only warehouses at least this full, in percent, or null
+     * @param maxUtilization only warehouses at most this full, in percent, or null
+     * @param sort           id, name, utilization, remaining or load, defaults to id
+     * @param direction      asc or desc, defaults to asc; ties are ordered by id
+     * @return one summary per matching warehouse
+     * @throws IllegalArgumentException if sort or direction are invalid
+     */
+    @Transactional(readOnly = true)
+    public List<WarehouseSummary> findSummaries(String name, Double minUtilization, Double maxUtilization,
+                                                String sort, String direction) {
+        String sortKey = cursorPagination.resolveSort(sort, SUMMARY_SORTS.keySet());
+        Comparator<WarehouseSummary> order = SUMMARY_SORTS.get(sortKey);
+        String dir = direction == null || direction.isBlank() ? "asc" : direction.trim().toLowerCase(Locale.ROOT);
+        if ("desc".equals(dir)) {
+            order = order.reversed();
+        } else if (!"asc".equals(dir)) {
+            throw new IllegalArgumentException("Unsupported direction " + direction + ", expected asc or desc");
+        }
+
+        String fragment = name == null || name.trim().isEmpty() ? null : escapeLike(name.trim());
+        List<WarehouseSummary> summaries = new ArrayList<>(
+                warehouseRepository.findSummaries(fragment, minUtilization, maxUtilization));
+        summaries.sort(order.thenComparingInt(WarehouseSummary::getId));
+        return summaries;
+    }
+
+    private static String escapeLike(String fragment) {
+        return fragment.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     /**
      * Finds a warehouse by its id
      * @param id warehouse id
      * @return Warehouse if found or null if it doesn't exist
      */
+    @Transactional(readOnly = true)
     public Warehouse findWarehouseById(int id) {
         Optional<Warehouse> warehouse = warehouseRepository.findById(id);
         return warehouse.orElse(null);
@@ -46,33 +153,60 @@ public class WarehouseService {
      * @return warehouse entity
      */
     public Warehouse saveWarehouse(Warehouse warehouse) {
-        return warehouseRepository.save(warehouse);
+        Warehouse saved = warehouseRepository.save(warehouse);
+        changeCounters.changed(ChangeCounters.Topic.WAREHOUSES);
+        return saved;
+    }
+
+    /**
+     * Updates name, location and max capacity of an existing warehouse
+     * The stored load is left alone, so concurrent stock changes are not overwritten
+     * The warehouse row is locked and the allowance of its load stripes reclaimed first, so receipts cannot
+     * keep drawing capacity granted under the old maximum
+     * @param id      warehouse id
+     * @param changes warehouse fields from the request
+     * @return updated warehouse, or null if it doesn't exist
+     * @throws IllegalStateException if the new max capacity is below the current load
+     */
+    @Transactional
+    public Warehouse updateWarehouse(int id, Warehouse changes) {
+        if (warehouseRepository.findAllByIdInForUpdate(List.of(id)).isEmpty()) {
+            return null;
+        }
+        reclaimAllowances(id);
+        int load = warehouseRepository.findCurrentLoadById(id).orElse(0);
+        if (changes.getMax_capacity() < load) {
+            throw new IllegalStateException("Max capacity " + changes.getMax_capacity()
+                    + " is below the current load " + load + " of warehouse id " + id);
+        }
+        warehouseRepository.updateDetails(id, changes.getName(), changes.getLocation(), changes.getMax_capacity());
+        changeCounters.changed(ChangeCounters.Topic.WAREHOUSES);
+        return warehouseRepository.findById(id).orElse(null);
     }
 
     /**
-     * Deletes a warehouse by id
+     * Deletes a warehouse by id, together with its load stripes
      * @param id warehouse id to delete
      */
+    @Transactional
     public void deleteWarehouseById(int id) {
+        if (warehouseRepository.findAllByIdInForUpdate(List.of(id)).isEmpty()) {
+            return;
+        }
+        stripeRepository.deleteByWarehouseId(id);
         warehouseRepository.deleteById(id);
+        changeCounters.changed(ChangeCounters.Topic.WAREHOUSES);
     }
 
     /**
-     * Calculates the total quantity of all inventory entries stored in a warehouse.
+     * Returns the total quantity of all inventory entries stored in a warehouse.
+     * Reads the maintained current_load counter, less the capacity parked in load stripes, instead of summing inventory rows.
      * @param warehouseId warehouse id
      * @return sum of quantities for all Inventory rows in the warehouse or 0 if the warehouse does not exist
      */
+    @Transactional(readOnly = true)
     public int getCurrentWarehouseLoad(int warehouseId) {
-        Warehouse warehouse = findWarehouseById(warehouseId);
-        if (warehouse == null) {
-            return 0;
-        }
-
-        List<Inventory> inventoryEntries = inventoryRepository.findByWarehouse(warehouse);
-
-        return inventoryEntries.stream()
-                .mapToInt(Inventory::getQuantity)
-                .sum();
+        return warehouseRepository.findCurrentLoadById(warehouseId).orElse(0);
     }
 
     /**
@@ -81,16 +215,10 @@ public class WarehouseService {
      * @param warehouseId id of the warehouse
      * @return remaining capacity which is always greater than or equal to zero, returns 0 if the warehouse does not exist.
      */
+    @Transactional(readOnly = true)
     public int getRemainingCapacity(int warehouseId) {
-        Warehouse warehouse = findWarehouseById(warehouseId);
-        if (warehouse == null) {
-            return 0;
-        }
-
-        int currentLoad = getCurrentWarehouseLoad(warehouseId);
-        int maxCapacity = warehouse.getMax_capacity();
-
-        return Math.max(0, maxCapacity - currentLoad);
+        int remaining = warehouseRepository.findRemainingCapacityById(warehouseId).orElse(0);
+        return Math.max(0, remaining);
     }
 
     /**
@@ -101,6 +229,7 @@ public class WarehouseService {
      * @return true if the warehouse has enough remaining capacity, false otherwise 
      * @throws IllegalArgumentException if additionalQuantity is negative
      */
+    @Transactional(readOnly = true)
     public boolean hasCapacityFor(int warehouseId, int additionalQuantity) {
         if (additionalQuantity < 0) {
             throw new IllegalArgumentException("additionalQuantity cannot be negative");
@@ -108,4 +237,217 @@ public class WarehouseService {
         int remaining = getRemainingCapacity(warehouseId);
         return additionalQuantity <= remaining;
     }
+
+    /**
+     * Applies a quantity change to the stored load of a warehouse
+     * Increases are reserved atomically against max capacity, decreases are always applied
+     * Must be called in the same transaction as the inventory change it mirrors
+     * @param warehouseId id of the warehouse
+     * @param delta       quantity added (positive) or removed (negative)
+     * @throws IllegalArgumentException if the warehouse does not exist
+     * @throws IllegalStateException    if an increase would exceed warehouse capacity
+     */
+    @Transactional
+    public void adjustCurrentLoad(int warehouseId, int delta) {
+        if (delta > 0) {
+            reserveCapacity(warehouseId, delta);
+        } else if (delta < 0) {
+            releaseCapacity(warehouseId, -delta);
+        }
+    }
+
+    /**
+     * Checks and reserves capacity
+     * Most reservations take the quantity from a random load stripe of the warehouse, so concurrent writers
+     * lock one of several stripe rows until they commit instead of all queueing on the warehouse row.
+     * See tryReserveCapacity for when the warehouse row is locked
+     * @param warehouseId id of the warehouse
+     * @param quantity    quantity to reserve
+     * @throws IllegalArgumentException if the warehouse does not exist or quantity is negative
+     * @throws IllegalStateException    if the warehouse does not have enough capacity
+     */
+    @Transactional
+    public void reserveCapacity(int warehouseId, int quantity) {
+        if (tryReserveCapacity(warehouseId, quantity)) {
+            return;
+        }
+        if (!warehouseRepository.existsById(warehouseId)) {
+            throw new IllegalArgumentException("Warehouse with id " + warehouseId + " not found");
+        }
+        throw new IllegalStateException("Warehouse capacity exceeded for warehouse id " + warehouseId);
+    }
+
+    /**
+     * Same as reserveCapacity but reports a lack of capacity through the return value,
+     * so callers can react without marking the surrounding transaction rollback-only
+     * The quantity is taken from a random load stripe when it holds enough. Otherwise the warehouse row
+     * is locked, the quantity is added to current_load and the stripe is refilled with up to the configured
+     * grant, capped at a share of the free capacity so that a nearly full warehouse keeps it on the row.
+     * If the free capacity is too small, the allowance of every stripe is returned to the row first
+     * Every refusal of an existing warehouse is counted in the inventory.capacity.rejections metric,
+     * tagged by warehouse
+     * @param warehouseId id of the warehouse
+     * @param quantity    quantity to reserve
+     * @return true if the capacity was reserved, false if it does not fit or the warehouse does not exist
+     * @throws IllegalArgumentException if quantity is negative
+     */
+    @Transactional
+    public boolean tryReserveCapacity(int warehouseId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity cannot be negative");
+        }
+        if (quantity == 0) {
+            return warehouseRepository.existsById(warehouseId);
+        }
+        int stripe = randomStripe();
+        if (stripe >= 0 && stripeRepository.take(WarehouseLoadStripe.id(warehouseId, stripe), quantity) == 1) {
+            return true;
+        }
+        if (warehouseRepository.findAllByIdInForUpdate(List.of(warehouseId)).isEmpty()) {
+            return false;
+        }
+        int unallocated = warehouseRepository.findUnallocatedCapacityById(warehouseId).orElse(0);
+        if (quantity > unallocated) {
+            unallocated += reclaimAllowances(warehouseId);
+        }
+        if (quantity > unallocated) {
+            Counter.builder("inventory.capacity.rejections")
+                    .description("Inventory writes refused because the warehouse was full")
+                    .tag("warehouse", String.valueOf(warehouseId))
+                    .register(meterRegistry)
+                    .increment();
+            return false;
+        }
+        int grant = stripe < 0 ? 0 : Math.min(stripeGrant, (unallocated - quantity) / (2 * loadStripes));
+        warehouseRepository.adjustCurrentLoad(warehouseId, quantity + grant);
+        if (grant > 0 && stripeRepository.give(WarehouseLoadStripe.id(warehouseId, stripe), grant, Integer.MAX_VALUE) == 0) {
+            stripeRepository.save(new WarehouseLoadStripe(warehouseId, stripe, grant));
+        }
+        return true;
+    }
+
+    /**
+     * Returns previously reserved capacity to a warehouse
+     * The quantity goes to a random load stripe while that stays within the configured grant,
+     * otherwise straight to the warehouse row
+     * @param warehouseId id of the warehouse
+     * @param quantity    quantity to release
+     * @throws IllegalArgumentException if the warehouse does not exist or quantity is negative
+     */
+    @Transactional
+    public void releaseCapacity(int warehouseId, int quantity) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("quantity cannot be negative");
+        }
+        if (quantity == 0) {
+            return;
+        }
+        int stripe = randomStripe();
+        if (stripe < 0 || stripeRepository.give(WarehouseLoadStripe.id(warehouseId, stripe), quantity, stripeGrant) == 0) {
+            if (warehouseRepository.adjustCurrentLoad(warehouseId, -quantity) == 0) {
+                throw new IllegalArgumentException("Warehouse with id " + warehouseId + " not found");
+            }
+        }
+    }
+
+    /**
+     * Stripe for the next reservation or release, -1 if striping is switched off
+     */
+    private int randomStripe() {
+        return loadStripes == 0 || stripeGrant == 0 ? -1 : ThreadLocalRandom.current().nextInt(loadStripes);
+    }
+
+    /**
+     * Locks every load stripe of a warehouse and moves their allowance back to the warehouse row
+     * The warehouse row must already be locked by the transaction: locks are always taken on a warehouse row
+     * before its stripes, so reclaiming never deadlocks with a refill
+     * @return the capacity returned to the row
+     */
+    private int reclaimAllowances(int warehouseId) {
+        List<WarehouseLoadStripe> stripes = stripeRepository.findByWarehouseIdForUpdate(warehouseId);
+        int reclaimed = 0;
+        for (WarehouseLoadStripe stripe : stripes) {
+            reclaimed += stripe.getAllowance();
+            stripe.setAllowance(0);
+        }
+        if (reclaimed > 0) {
+            stripeRepository.saveAllAndFlush(stripes);
+            warehouseRepository.adjustCurrentLoad(warehouseId, -reclaimed);
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Moves load from one warehouse to another
+     * Warehouses are always updated in ascending id order so that opposite
+     * transfers running at the same time cannot deadlock on each other
+     * @param fromWarehouseId source warehouse id
+     * @param toWarehouseId   destination warehouse id
+     * @param quantity        quantity moved
+     * @throws IllegalStateException if the destination does not have enough capacity
+     */
+    @Transactional
+    public void moveLoad(int fromWarehouseId, int toWarehouseId, int quantity) {
+        if (fromWarehouseId == toWarehouseId) {
+            return;
+        }
+        if (fromWarehouseId < toWarehouseId) {
+            releaseCapacity(fromWarehouseId, quantity);
+            reserveCapacity(toWarehouseId, quantity);
+        } else {
+            reserveCapacity(toWarehouseId, quantity);
+            releaseCapacity(fromWarehouseId, quantity);
+        }
+    }
+
+    /**
+     * Locks a group of warehouses in ascending id order for the rest of the transaction,
+     * so their remaining capacity cannot change until it commits
+     * Each warehouse row is locked and its load stripes reclaimed before the next warehouse,
+     * the same order in which single reservations and transfers take them
+     * @param warehouseIds ids of the warehouses
+     * @return locked warehouses by id with their current load, missing ids are absent from the map
+     */
+    @Transactional
+    public Map<Integer, Warehouse> lockWarehouses(Collection<Integer> warehouseIds) {
+        Map<Integer, Warehouse> locked = new LinkedHashMap<>();
+        for (Integer warehouseId : new TreeSet<>(warehouseIds)) {
+            List<Warehouse> found = warehouseRepository.findAllByIdInForUpdate(List.of(warehouseId));
+            if (found.isEmpty()) {
+                continue;
+            }
+            reclaimAllowances(warehouseId);
+            Warehouse warehouse = found.get(0);
+            warehouse.setCurrentLoad(warehouseRepository.findCurrentLoadById(warehouseId).orElse(0));
+            locked.put(warehouseId, warehouse);
+        }
+        return locked;
+    }
+
+    /**
+     * Recomputes the stored load of a warehouse from its inventory rows, pending movements and load stripes
+     * The warehouse row is locked first, so a writer that already holds it commits before the sums
+     * are read, and the rebuilt value cannot overwrite its load change with sums that miss its rows
+     * @param warehouseId id of the warehouse
+     * @return the rebuilt load, or 0 if the warehouse does not exist
+     */
+    @Transactional
+    public int rebuildCurrentLoad(int warehouseId) {
+        if (warehouseRepository.findAllByIdInForUpdate(List.of(warehouseId)).isEmpty()) {
+            return 0;
+        }
+        warehouseRepository.rebuildCurrentLoad(warehouseId);
+        return getCurrentWarehouseLoad(warehouseId);
+    }
+
+    /**
+     * Recomputes the stored load of every warehouse from its inventory rows
+     * All warehouse rows are locked in ascending id order before the sums are read, like rebuildCurrentLoad
+     * @return number of warehouses rebuilt
+     */
+    @Transactional
+    public int rebuildAllCurrentLoads() {
+        warehouseRepository.findAllForUpdate();
+        return warehouseRepository.rebuildAllCurrentLoads();
+    }
 }
@@ -103,6 +103,24 @@ async function api(path, options = {}) {
   }
 }
 
+/**
+ * Loads every page of a keyset paginated listing
+ * Follows nextCursor until the last page and concatenates the items
+ * @param {string} path - URL path of the listing endpoint
+ * @returns {Promise<Array<any>>} all items across pages
+ */
+async function apiAllPages(path) {
+  const items = [];
+  let cursor = null;
+  do {
+    const sep = path.includes("?") ? "&" : "?";
+    const page = await api(cursor ? `${path}${sep}cursor=${encodeURIComponent(cursor)}` : path);
+    items.push(...(page?.items || []));
+    cursor = page?.nextCursor;
+  } while (cursor);
+  return items;
+}
+
 /**
  * Loads enum department values from the backend
  * Endpoint: GET /products/departments
@@ -159,7 +177,7 @@ function fillDepartmentSelectIfPossible() {
  * @returns {Promise<void>}
  */
 async function loadWarehouses() {
-  allWarehouses = await api("/warehouses");
+  allWarehouses = await apiAllPages("/warehouses");
   renderWarehouses(allWarehouses);
 }
 
@@ -326,7 +344,7 @@ async function openItemsModal(warehouse) {
  * @returns {Promise<void>}
  */
 async function loadItemsForWarehouse(warehouseId) {
-  lastLoadedItems = await api(`/inventory/warehouse/${warehouseId}`);
+  lastLoadedItems = await apiAllPages(`/inventory/warehouse/${warehouseId}`);
   renderItems(lastLoadedItems);
 }
 
@@ -336,9 +354,9 @@ async function loadItemsForWarehouse(warehouseId) {
 itemSearchInput?.addEventListener("input", () => {
   const q = (itemSearchInput.value || "").trim().toLowerCase();
   const filtered = lastLoadedItems.filter(inv => {
-    const name = (inv.product?.name || "").toLowerCase();
-    const sku = (inv.product?.sku || "").toLowerCase();
-    const dept = (inv.product?.category || "").toLowerCase();
+    const name = (inv.name || "").toLowerCase();
+    const sku = (inv.sku || "").toLowerCase();
+    const dept = (inv.category || "").toLowerCase();
     return name.includes(q) || sku.includes(q) || dept.includes(q);
   });
   renderItems(filtered);
@@ -363,8 +381,8 @@ function renderItems(items) {
 
     row.innerHTML = `
       <div class="item-row-main">
-        <span><strong>${escapeHtml(inv.product?.name || "Unknown")}</strong> (SKU: ${escapeHtml(inv.product?.sku || "")})</span>
-        <span>Department: ${escapeHtml(inv.product?.category || "N/A")} | Qty: ${inv.quantity} | Location: ${escapeHtml(inv.storageLocation || "")}</span>
+        <span><strong>${escapeHtml(inv.name || "Unknown")}</strong> (SKU: ${escapeHtml(inv.sku || "")})</span>
+        <span>Department: ${escapeHtml(inv.category || "N/A")} | Qty: ${inv.quantity} | Location: ${escapeHtml(inv.storageLocation || "")}</span>
       </div>
       <div class="item-row-actions">
         <button class="btn secondary edit-btn">Edit</button>
@@ -376,7 +394,7 @@ function renderItems(items) {
     row.querySelector(".edit-btn").onclick = () => openItemFormModal(inv);
     row.querySelector(".transfer-btn").onclick = () => openTransferModal(inv);
     row.querySelector(".delete-btn").onclick = async () => {
-      if (!confirm(`Delete "${inv.product?.name || "item"}"?`)) return;
+      if (!confirm(`Delete "${inv.name || "item"}"?`)) return;
       try {
         await api(`/inventory/${inv.id}`, { method: "DELETE" });
         await loadItemsForWarehouse(currentWarehouseForItems.id);
@@ -415,9 +433,9 @@ function openItemFormModal(inv) {
   itemIdInput.value = inv?.id || "";
   itemWarehouseIdInput.value = currentWarehouseForItems.id;
 
-  itemNameInput.value = inv?.product?.name || "";
-  itemSkuInput.value = inv?.product?.sku || "";
-  itemCategoryInput.value = inv?.product?.category || "";
+  itemNameInput.value = inv?.name || "";
+  itemSkuInput.value = inv?.sku || "";
+  itemCategoryInput.value = inv?.category || "";
   itemQuantityInput.value = (inv?.quantity ?? "");
   itemStorageLocationInput.value = inv?.storageLocation || "";
 
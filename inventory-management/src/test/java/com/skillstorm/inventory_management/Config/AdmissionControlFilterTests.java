@@ -0,0 +1,63 @@
+package com.skillstorm.inventory_management.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+
+class AdmissionControlFilterTests {
+
+    private final Bulkhead search = new Bulkhead(RouteGroup.SEARCH, 1, 0, Duration.ZERO, 0, 1,
+            new SimpleMeterRegistry());
+
+    @Test
+    void asyncRequestKeepsItsSlotUntilItCompletes() throws Exception {
+        MockHttpServletRequest request = run("export");
+
+        assertTrue(request.isAsyncStarted());
+        assertTrue(search.acquire() > 0);
+        request.getAsyncContext().complete();
+        assertEquals(0, search.acquire());
+    }
+
+    @Test
+    void streamingRequestGivesItsSlotBackWhenTheHandlerReturns() throws Exception {
+        MockHttpServletRequest request = run("events");
+
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0, search.acquire());
+    }
+
+    private MockHttpServletRequest run(String handler) throws Exception {
+        HandlerMethod method = new HandlerMethod(new Routes(), handler);
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                () -> request -> new HandlerExecutionChain(method), Map.of(RouteGroup.SEARCH, search));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventory/" + handler);
+        request.setAsyncSupported(true);
+        FilterChain startsAsync = (req, res) -> req.startAsync();
+        filter.doFilter(request, new MockHttpServletResponse(), startsAsync);
+        return request;
+    }
+
+    static class Routes {
+
+        @Admission(RouteGroup.SEARCH)
+        public void export() {
+        }
+
+        @Admission(value = RouteGroup.SEARCH, streaming = true)
+        public void events() {
+        }
+    }
+}
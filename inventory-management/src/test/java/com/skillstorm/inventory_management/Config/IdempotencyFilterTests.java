@@ -0,0 +1,110 @@
+package com.skillstorm.inventory_management.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+
+class IdempotencyFilterTests {
+
+    private static final String TRANSFER = "/inventory/7/transfer";
+
+    private final IdempotencyFilter filter = new IdempotencyFilter(List.of("/inventory/\\d+/transfer"),
+            100, Duration.ofMinutes(5), Duration.ofSeconds(10), new SimpleMeterRegistry());
+    private final AtomicInteger executed = new AtomicInteger();
+    private final ExecutorService pool = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void retryWithSameParametersIsReplayed() throws Exception {
+        MockHttpServletResponse first = transfer("key-1", "fromWarehouse=1&toWarehouse=2&quantity=5", countingChain());
+        MockHttpServletResponse retry = transfer("key-1", "quantity=5&toWarehouse=2&fromWarehouse=1", countingChain());
+
+        assertEquals(1, executed.get());
+        assertEquals(200, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(200, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("moved 5", retry.getContentAsString());
+    }
+
+    @Test
+    void reusedKeyWithDifferentQuantityIsRejected() throws Exception {
+        transfer("key-2", "fromWarehouse=1&toWarehouse=2&quantity=5", countingChain());
+        MockHttpServletResponse reused = transfer("key-2", "fromWarehouse=1&toWarehouse=2&quantity=50", countingChain());
+
+        assertEquals(1, executed.get());
+        assertEquals(422, reused.getStatus());
+    }
+
+    @Test
+    void duplicateWhileRunningWaitsForTheFirstResponse() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            started.countDown();
+            try {
+                finish.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            countingChain().doFilter(request, response);
+        };
+        String query = "fromWarehouse=1&toWarehouse=2&quantity=5";
+
+        Future<MockHttpServletResponse> first = pool.submit(() -> transfer("key-3", query, slow));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<MockHttpServletResponse> duplicate = pool.submit(() -> transfer("key-3", query, countingChain()));
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        finish.countDown();
+
+        assertEquals(200, first.get(10, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse coalesced = duplicate.get(10, TimeUnit.SECONDS);
+        assertEquals(1, executed.get());
+        assertEquals(200, coalesced.getStatus());
+        assertEquals("true", coalesced.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("moved 5", coalesced.getContentAsString());
+    }
+
+    private MockHttpServletResponse transfer(String key, String query, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", TRANSFER);
+        request.setQueryString(query);
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain countingChain() {
+        return (request, response) -> {
+            executed.incrementAndGet();
+            String quantity = ((HttpServletRequest) request).getQueryString().replaceAll(".*quantity=(\\d+).*", "$1");
+            response.setContentType("text/plain");
+            response.getWriter().write("moved " + quantity);
+        };
+    }
+}
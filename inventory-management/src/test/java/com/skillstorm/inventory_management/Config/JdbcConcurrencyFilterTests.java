@@ -0,0 +1,49 @@
+package com.skillstorm.inventory_management.Config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+
+class JdbcConcurrencyFilterTests {
+
+    private final JdbcConcurrencyFilter filter = new JdbcConcurrencyFilter(1, Duration.ZERO,
+            List.of(OpenInViewConfig.EVENT_STREAMS), new SimpleMeterRegistry());
+
+    @Test
+    void asyncRequestKeepsItsPermitUntilItCompletes() throws Exception {
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/inventory/warehouse/7/export");
+        run(export);
+
+        assertTrue(export.isAsyncStarted());
+        assertEquals(503, run(new MockHttpServletRequest("GET", "/inventory/warehouse/7/export")));
+        export.getAsyncContext().complete();
+        assertEquals(200, run(new MockHttpServletRequest("GET", "/inventory/warehouse/7/export")));
+    }
+
+    @Test
+    void eventStreamGivesItsPermitBackWhenTheHandlerReturns() throws Exception {
+        MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/inventory/warehouse/7/events");
+        run(stream);
+
+        assertTrue(stream.isAsyncStarted());
+        assertEquals(200, run(new MockHttpServletRequest("GET", "/inventory/warehouse/7/events")));
+    }
+
+    private int run(MockHttpServletRequest request) throws Exception {
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain startsAsync = (req, res) -> req.startAsync();
+        filter.doFilter(request, response, startsAsync);
+        return response.getStatus();
+    }
+}
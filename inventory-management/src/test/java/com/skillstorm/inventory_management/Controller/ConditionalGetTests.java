@@ -0,0 +1,74 @@
+package com.skillstorm.inventory_management.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Service.ChangeCounters;
+import com.skillstorm.inventory_management.Service.ProductService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConditionalGetTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ChangeCounters changeCounters;
+
+    @Test
+    void unchangedProductListingIsNotModifiedUntilAProductIsCreated() throws Exception {
+        // share earlier writes first, so the scheduled sync cannot swap the tag between the two reads
+        changeCounters.sync();
+        String etag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        productService.createProducts(List.of(new Product("ETAG-" + UUID.randomUUID(), "Tagged", null,
+                Department.PRODUCE)));
+        String changed = mockMvc.perform(get("/products").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void departmentsAreCachedForTheConfiguredMaxAge() throws Exception {
+        String etag = mockMvc.perform(get("/products/departments"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String revalidated = mockMvc.perform(get("/products/departments").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(etag, revalidated);
+    }
+}
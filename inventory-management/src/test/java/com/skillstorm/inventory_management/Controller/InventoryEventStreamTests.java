@@ -0,0 +1,67 @@
+package com.skillstorm.inventory_management.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.skillstorm.inventory_management.Model.Warehouse;
+import com.skillstorm.inventory_management.Service.WarehouseService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InventoryEventStreamTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void openStreamsHoldNoPooledConnection() throws Exception {
+        int warehouseId = warehouseService.saveWarehouse(new Warehouse("Streamed", "Test", 100, null)).getId();
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+
+        MvcResult[] streams = new MvcResult[3];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = mockMvc.perform(get("/inventory/warehouse/{id}/events", warehouseId))
+                    .andExpect(status().isOk())
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+        }
+
+        awaitTrue(() -> pool.getActiveConnections() == 0);
+        for (MvcResult stream : streams) {
+            assertTrue(stream.getRequest().isAsyncStarted());
+        }
+        mockMvc.perform(get("/inventory/warehouse/{id}/events", Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,140 @@
+package com.skillstorm.inventory_management.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstorm.inventory_management.DTO.InventoryDeltaRequest;
+import com.skillstorm.inventory_management.DTO.InventoryUpdateRequest;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.Warehouse;
+import com.skillstorm.inventory_management.Service.InventoryService;
+import com.skillstorm.inventory_management.Service.WarehouseService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InventoryQuantityTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void deltasMoveTheQuantityAndTheWarehouseLoad() throws Exception {
+        int warehouseId = newWarehouse(20);
+        Inventory row = receive(warehouseId, 10);
+
+        mockMvc.perform(delta(row.getId(), 5))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(15));
+        mockMvc.perform(delta(row.getId(), -12))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(3));
+        assertEquals(3, warehouseService.getCurrentWarehouseLoad(warehouseId));
+
+        mockMvc.perform(delta(row.getId(), -4)).andExpect(status().isConflict());
+        mockMvc.perform(delta(row.getId(), 18)).andExpect(status().isConflict());
+        mockMvc.perform(delta(Integer.MAX_VALUE, 1)).andExpect(status().isBadRequest());
+        assertEquals(3, inventoryService.findById(row.getId()).getAvailableQuantity());
+        assertEquals(3, warehouseService.getCurrentWarehouseLoad(warehouseId));
+    }
+
+    @Test
+    void concurrentWithdrawalsNeverGoBelowZero() throws Exception {
+        int warehouseId = newWarehouse(100);
+        Inventory row = receive(warehouseId, 5);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> withdrawals = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            withdrawals.add(pool.submit(() -> mockMvc.perform(delta(row.getId(), -1)).andReturn().getResponse().getStatus()));
+        }
+        int succeeded = 0;
+        for (Future<Integer> withdrawal : withdrawals) {
+            if (withdrawal.get(30, TimeUnit.SECONDS) == 200) {
+                succeeded++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(5, succeeded);
+        assertEquals(0, inventoryService.findById(row.getId()).getAvailableQuantity());
+        assertEquals(0, warehouseService.getCurrentWarehouseLoad(warehouseId));
+    }
+
+    @Test
+    void staleExpectedVersionIsAConflict() throws Exception {
+        int warehouseId = newWarehouse(100);
+        Inventory row = receive(warehouseId, 10);
+        long version = inventoryService.findById(row.getId()).getVersion();
+
+        mockMvc.perform(update(row.getId(), 20, version))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(20));
+        mockMvc.perform(update(row.getId(), 30, version))
+                .andExpect(status().isConflict());
+
+        assertEquals(20, inventoryService.findById(row.getId()).getAvailableQuantity());
+        assertEquals(20, warehouseService.getCurrentWarehouseLoad(warehouseId));
+        mockMvc.perform(update(row.getId(), 30, null))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(30));
+    }
+
+    private RequestBuilder delta(int id, int delta) throws Exception {
+        InventoryDeltaRequest request = new InventoryDeltaRequest();
+        request.setDelta(delta);
+        return patch("/inventory/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+
+    private RequestBuilder update(int id, int quantity, Long version) throws Exception {
+        InventoryUpdateRequest request = new InventoryUpdateRequest();
+        request.setQuantity(quantity);
+        request.setStorageLocation("A1");
+        request.setVersion(version);
+        return put("/inventory/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request));
+    }
+
+    private int newWarehouse(int maxCapacity) {
+        return warehouseService.saveWarehouse(new Warehouse("Quantities", "Test", maxCapacity, null)).getId();
+    }
+
+    private Inventory receive(int warehouseId, int quantity) {
+        return inventoryService.addInventoryToWarehouse(warehouseId, "QTY-" + UUID.randomUUID(), "Quantity item",
+                null, Department.PRODUCE, quantity, "A1");
+    }
+}
@@ -0,0 +1,111 @@
+package com.skillstorm.inventory_management.Controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstorm.inventory_management.Model.Warehouse;
+import com.skillstorm.inventory_management.Service.ChangeCounters;
+import com.skillstorm.inventory_management.Service.WarehouseService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class WarehouseListingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChangeCounters changeCounters;
+
+    @Test
+    void stockChangesKeepTheListingTagAndWarehouseEditsMoveIt() throws Exception {
+        int id = warehouseService.saveWarehouse(new Warehouse("Listed", "Test", 100, null)).getId();
+        // share the create first, so the scheduled sync cannot swap the tag between the two reads
+        changeCounters.sync();
+        String etag = mockMvc.perform(get("/warehouses").param("size", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[?(@.id == " + id + ")].max_capacity").value(100))
+                .andExpect(jsonPath("$.items[0].currentLoad").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        warehouseService.reserveCapacity(id, 10);
+        warehouseService.releaseCapacity(id, 5);
+        mockMvc.perform(get("/warehouses").param("size", "1000").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        warehouseService.updateWarehouse(id, new Warehouse("Renamed", "Test", 100, null));
+        String changed = mockMvc.perform(get("/warehouses").param("size", "1000").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[?(@.id == " + id + ")].name").value("Renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void pagesSortedByNameBreakTiesOnId() throws Exception {
+        String name = "Tied " + UUID.randomUUID();
+        List<Integer> tied = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tied.add(warehouseService.saveWarehouse(new Warehouse(name, "Test", 100, null)).getId());
+        }
+
+        List<Integer> seen = new ArrayList<>();
+        List<Integer> seenTied = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder page = get("/warehouses").param("size", "2").param("sort", "name");
+            if (cursor != null) {
+                page.param("cursor", cursor);
+            }
+            JsonNode body = objectMapper.readTree(mockMvc.perform(page)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            for (JsonNode item : body.get("items")) {
+                seen.add(item.get("id").asInt());
+                if (name.equals(item.get("name").asText())) {
+                    seenTied.add(item.get("id").asInt());
+                }
+            }
+            cursor = body.get("nextCursor").isNull() ? null : body.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertEquals(seen.size(), new HashSet<>(seen).size());
+        assertEquals(tied, seenTied);
+    }
+
+    @Test
+    void invalidCursorOrSizeIsABadRequest() throws Exception {
+        mockMvc.perform(get("/warehouses").param("cursor", "not a cursor!"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/warehouses").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/warehouses").param("sort", "load"))
+                .andExpect(status().isBadRequest());
+    }
+}
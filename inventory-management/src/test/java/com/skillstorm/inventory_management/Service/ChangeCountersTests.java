@@ -0,0 +1,78 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstorm.inventory_management.Repository.ChangeVersionRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ChangeCountersTests {
+
+    @Autowired
+    private ChangeCounters changeCounters;
+
+    @Autowired
+    private ChangeVersionRepository changeVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rolledBackWriteKeepsTheTag() {
+        changeCounters.sync();
+        String before = changeCounters.etag(ChangeCounters.Topic.CATALOG);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            changeCounters.changed(ChangeCounters.Topic.CATALOG);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, changeCounters.etag(ChangeCounters.Topic.CATALOG));
+    }
+
+    @Test
+    void localWriteMovesTheTagAtOnceAndTheSyncSharesIt() {
+        changeCounters.sync();
+        String before = changeCounters.etag(ChangeCounters.Topic.CATALOG);
+        long sharedBefore = sharedVersion("CATALOG");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                changeCounters.changed(ChangeCounters.Topic.CATALOG));
+        assertNotEquals(before, changeCounters.etag(ChangeCounters.Topic.CATALOG));
+
+        changeCounters.sync();
+        long shared = sharedVersion("CATALOG");
+        assertTrue(shared > sharedBefore);
+        assertEquals("\"catalog-" + shared + "\"", changeCounters.etag(ChangeCounters.Topic.CATALOG));
+    }
+
+    @Test
+    void writeThroughAnotherInstanceMovesTheTagOnSync() {
+        changeCounters.sync();
+        String before = changeCounters.etag(ChangeCounters.Topic.WAREHOUSES);
+
+        // what the sync of another instance does after a warehouse write there
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                changeVersionRepository.bump(List.of("WAREHOUSES")));
+        changeCounters.sync();
+
+        assertNotEquals(before, changeCounters.etag(ChangeCounters.Topic.WAREHOUSES));
+        assertEquals("\"warehouses-" + sharedVersion("WAREHOUSES") + "\"",
+                changeCounters.etag(ChangeCounters.Topic.WAREHOUSES));
+    }
+
+    private long sharedVersion(String topic) {
+        return changeVersionRepository.findById(topic).orElseThrow().getVersion();
+    }
+}
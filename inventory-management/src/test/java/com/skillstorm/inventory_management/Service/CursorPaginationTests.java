@@ -0,0 +1,62 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.skillstorm.inventory_management.DTO.CursorPage;
+
+class CursorPaginationTests {
+
+    private final CursorPagination pagination = new CursorPagination(2, 3);
+
+    private record Row(int id, String name) {
+    }
+
+    @Test
+    void cursorOfAFullPageDecodesToItsLastRow() {
+        List<Row> fetched = List.of(new Row(4, "a:b"), new Row(9, "c:d"), new Row(12, "e"));
+
+        CursorPage<Row> page = pagination.toPage(fetched, 2, "name", Row::id, Row::name);
+        CursorPagination.Cursor cursor = pagination.decode(page.getNextCursor(), "name");
+
+        assertEquals(List.of(new Row(4, "a:b"), new Row(9, "c:d")), page.getItems());
+        assertEquals(9, cursor.getId());
+        assertEquals("c:d", cursor.getValue());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Row> page = pagination.toPage(List.of(new Row(4, "a")), 2, "id", Row::id, Row::name);
+
+        assertNull(page.getNextCursor());
+        assertNull(pagination.decode(page.getNextCursor(), "id"));
+    }
+
+    @Test
+    void sizeDefaultsAndIsCappedAtTheMaximum() {
+        assertEquals(2, pagination.resolveSize(null));
+        assertEquals(3, pagination.resolveSize(5000));
+        assertEquals(4, pagination.probeLimit(3).max());
+        assertThrows(IllegalArgumentException.class, () -> pagination.resolveSize(0));
+    }
+
+    @Test
+    void malformedOrForeignCursorsAreRejected() {
+        String byName = pagination.toPage(List.of(new Row(1, "a"), new Row(2, "b")), 1, "name", Row::id, Row::name)
+                .getNextCursor();
+        String badId = Base64.getUrlEncoder().encodeToString("id:x:".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> pagination.decode(byName, "id"));
+        assertThrows(IllegalArgumentException.class, () -> pagination.decode("not a cursor!", "id"));
+        assertThrows(IllegalArgumentException.class, () -> pagination.decode(badId, "id"));
+        assertThrows(IllegalArgumentException.class, () -> pagination.resolveSort("price", Set.of("id", "name")));
+    }
+}
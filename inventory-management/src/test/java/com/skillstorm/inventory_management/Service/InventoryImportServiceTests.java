@@ -0,0 +1,121 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstorm.inventory_management.DTO.BulkImportLineError;
+import com.skillstorm.inventory_management.DTO.BulkImportResult;
+import com.skillstorm.inventory_management.DTO.InventoryCreateRequest;
+import com.skillstorm.inventory_management.DTO.InventoryImportLine;
+import com.skillstorm.inventory_management.DTO.InventoryRow;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Warehouse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryImportServiceTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void chunkThatDoesNotFitIsRolledBackWithItsNewProducts() {
+        int warehouseId = newWarehouse("Import full", 50);
+        String stocked = "IMP-" + UUID.randomUUID();
+        String created = "IMP-" + UUID.randomUUID();
+        inventoryService.addInventoryToWarehouse(warehouseId, stocked, "Stocked", null, Department.PRODUCE, 40, "A1");
+
+        List<BulkImportLineError> errors = inventoryService.importChunk(warehouseId, List.of(
+                line(1, stocked, 5, "B2"),
+                line(2, created, 10, "B3")));
+
+        assertEquals(List.of(1, 2), errors.stream().map(BulkImportLineError::getLineNumber).toList());
+        assertEquals(Map.of(stocked, 40), stock(warehouseId));
+        assertEquals(40, warehouseService.getCurrentWarehouseLoad(warehouseId));
+        assertNull(productService.findBySkusForWrite(List.of(created)).get(ProductService.normalizeSku(created)));
+    }
+
+    @Test
+    void invalidLinesAreReportedAndTheRestImported() {
+        int warehouseId = newWarehouse("Import partial", 1_000);
+        String sku = "IMP-" + UUID.randomUUID();
+
+        List<BulkImportLineError> errors = inventoryService.importChunk(warehouseId, List.of(
+                line(1, sku, 5, "A1"),
+                line(2, "IMP-" + UUID.randomUUID(), -3, "A2"),
+                line(3, sku, 7, null)));
+
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.get(0).getLineNumber());
+        assertEquals(Map.of(sku, 12), stock(warehouseId));
+        assertEquals(12, warehouseService.getCurrentWarehouseLoad(warehouseId));
+    }
+
+    @Test
+    void chunksThatFitAreKeptWhenALaterChunkDoesNot() throws Exception {
+        int warehouseId = newWarehouse("Import chunks", 30);
+        InventoryImportService importService = new InventoryImportService(inventoryService, warehouseService,
+                objectMapper, 2);
+        String first = "IMP-" + UUID.randomUUID();
+        String second = "IMP-" + UUID.randomUUID();
+        String csv = "sku,name,quantity\n"
+                + first + ",First,10\n"
+                + first + ",First,10\n"
+                + second + ",Second,5\n"
+                + second + ",Second,6\n";
+
+        BulkImportResult result = importService.importCsv(warehouseId,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, result.getTotalLines());
+        assertEquals(2, result.getImportedLines());
+        assertEquals(2, result.getFailedLines());
+        assertEquals(List.of(4, 5), result.getErrors().stream().map(BulkImportLineError::getLineNumber).toList());
+        assertEquals(Map.of(first, 20), stock(warehouseId));
+        assertEquals(20, warehouseService.getCurrentWarehouseLoad(warehouseId));
+    }
+
+    private InventoryImportLine line(int lineNumber, String sku, int quantity, String storageLocation) {
+        InventoryCreateRequest request = new InventoryCreateRequest();
+        request.setSku(sku);
+        request.setName("Imported item");
+        request.setCategory(Department.PRODUCE);
+        request.setQuantity(quantity);
+        request.setStorageLocation(storageLocation);
+        return new InventoryImportLine(lineNumber, request);
+    }
+
+    private Map<String, Integer> stock(int warehouseId) {
+        Map<String, Integer> stock = new HashMap<>();
+        for (InventoryRow row : inventoryService.findInventoryPageByWarehouseId(warehouseId, 1_000, null, "id").getItems()) {
+            stock.put(row.getSku(), row.getQuantity());
+        }
+        return stock;
+    }
+
+    private int newWarehouse(String name, int maxCapacity) {
+        return warehouseService.saveWarehouse(new Warehouse(name, "Test", maxCapacity, null)).getId();
+    }
+}
@@ -0,0 +1,199 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.Warehouse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryJournalTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryJournal inventoryJournal;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(6);
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void compactionRacingPutsAndReceiptsKeepsRowAndLoadInStep() throws Exception {
+        int warehouseId = newWarehouse();
+        Inventory row = receive(warehouseId, 10);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        Future<?> compactor = pool.submit(() -> compactWhile(writing));
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    inventoryService.applyQuantityDelta(row.getId(), 1);
+                }
+            }));
+        }
+        writers.add(pool.submit(() -> {
+            for (int i = 0; i < 10; i++) {
+                try {
+                    inventoryService.updateInventory(row.getId(), 100 + i, "B" + i, null);
+                } catch (IllegalStateException e) {
+                    // every attempt lost its version check, the next one tries again
+                }
+            }
+        }));
+        awaitAll(writers);
+        writing.set(false);
+        compactor.get(30, TimeUnit.SECONDS);
+
+        compactAll();
+        Inventory compacted = inventoryService.findById(row.getId());
+        assertEquals(0, inventoryJournal.pendingQuantity(warehouseId, compacted.getProduct().getId()));
+        assertEquals(compacted.getQuantity(), warehouseService.getCurrentWarehouseLoad(warehouseId));
+        assertLoadMatchesRows(warehouseId);
+    }
+
+    @Test
+    void compactionRacingDeleteKeepsLoadInStep() throws Exception {
+        int warehouseId = newWarehouse();
+        Inventory row = receive(warehouseId, 10);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        Future<?> compactor = pool.submit(() -> compactWhile(writing));
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    try {
+                        inventoryService.applyQuantityDelta(row.getId(), 1);
+                    } catch (IllegalArgumentException e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        writers.add(pool.submit(() -> {
+            Thread.sleep(50);
+            inventoryService.deleteInventoryById(row.getId());
+            return null;
+        }));
+        awaitAll(writers);
+        writing.set(false);
+        compactor.get(30, TimeUnit.SECONDS);
+
+        assertLoadMatchesRows(warehouseId);
+    }
+
+    @Test
+    void receiptCommittedAfterDeleteIsRecreatedByCompactor() throws Exception {
+        int warehouseId = newWarehouse();
+        Inventory row = receive(warehouseId, 10);
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        Future<?> receipt = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            inventoryService.applyQuantityDelta(row.getId(), 5);
+            received.countDown();
+            try {
+                commit.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(received.await(30, TimeUnit.SECONDS));
+
+        Future<?> delete = pool.submit(() -> inventoryService.deleteInventoryById(row.getId()));
+        try {
+            delete.get(1, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // the delete waits for a capacity lock held by the receipt, after it read the pending movements
+        }
+        commit.countDown();
+        receipt.get(30, TimeUnit.SECONDS);
+        delete.get(30, TimeUnit.SECONDS);
+
+        compactAll();
+        List<Inventory> rows = inventoryService.findInventoryByWarehouseId(warehouseId);
+        assertEquals(1, rows.size());
+        assertEquals(5, rows.get(0).getQuantity());
+        assertEquals(5, warehouseService.getCurrentWarehouseLoad(warehouseId));
+        assertLoadMatchesRows(warehouseId);
+    }
+
+    private int newWarehouse() {
+        return warehouseService.saveWarehouse(new Warehouse("Journal", "Test", 1_000_000, null)).getId();
+    }
+
+    private Inventory receive(int warehouseId, int quantity) {
+        return inventoryService.addInventoryToWarehouse(warehouseId, "SKU-" + UUID.randomUUID(), "Journal item",
+                null, Department.PRODUCE, quantity, "A1");
+    }
+
+    private Void compactWhile(AtomicBoolean writing) {
+        while (writing.get()) {
+            try {
+                inventoryJournal.compact(50);
+            } catch (OptimisticLockingFailureException e) {
+                // a writer folded the same movements first
+            }
+        }
+        return null;
+    }
+
+    private void compactAll() {
+        while (inventoryJournal.compact(500) > 0) {
+            // keep folding until nothing is pending
+        }
+    }
+
+    private void awaitAll(List<Future<?>> futures) throws Exception {
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * The maintained load must equal the sum of the compacted rows, which is what a rebuild computes
+     */
+    private void assertLoadMatchesRows(int warehouseId) {
+        compactAll();
+        int rows = 0;
+        for (Inventory row : inventoryService.findInventoryByWarehouseId(warehouseId)) {
+            rows += row.getQuantity();
+        }
+        int load = warehouseService.getCurrentWarehouseLoad(warehouseId);
+        assertEquals(rows, load);
+        assertEquals(load, warehouseService.rebuildCurrentLoad(warehouseId));
+    }
+}
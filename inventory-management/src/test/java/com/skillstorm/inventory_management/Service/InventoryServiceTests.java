@@ -0,0 +1,169 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstorm.inventory_management.DTO.BatchTransferResult;
+import com.skillstorm.inventory_management.DTO.InventoryRow;
+import com.skillstorm.inventory_management.DTO.TransferLine;
+import com.skillstorm.inventory_management.DTO.TransferLineResult;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.Warehouse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryServiceTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void updateReturnsTheQuantityAReadReturns() {
+        int warehouseId = newWarehouse("Updated", 1_000);
+        Inventory row = receive(warehouseId, "PUT-" + UUID.randomUUID(), 10);
+        inventoryService.applyQuantityDelta(row.getId(), 5);
+
+        Inventory updated = inventoryService.updateInventory(row.getId(), 30, "B1", null);
+        inventoryService.applyQuantityDelta(row.getId(), 2);
+        Inventory read = inventoryService.findById(row.getId());
+
+        assertEquals(30, updated.getAvailableQuantity());
+        assertEquals(32, read.getAvailableQuantity());
+        assertEquals(32, warehouseService.getCurrentWarehouseLoad(warehouseId));
+    }
+
+    @Test
+    void journalFieldsStayOffTheJson() {
+        Inventory row = new Inventory(1, null, null, 10, "A1");
+        row.setPendingQuantity(5);
+
+        JsonNode json = objectMapper.valueToTree(row);
+        assertEquals(15, json.get("quantity").asInt());
+        assertFalse(json.has("compactedQuantity"));
+        assertFalse(json.has("pendingQuantity"));
+    }
+
+    @Test
+    void oppositeBatchesRunningTogetherAllComplete() throws Exception {
+        int first = newWarehouse("Batch A", 100_000);
+        int second = newWarehouse("Batch B", 100_000);
+        String x = "BX-" + UUID.randomUUID();
+        String y = "BY-" + UUID.randomUUID();
+        for (int warehouseId : List.of(first, second)) {
+            receive(warehouseId, x, 1_000);
+            receive(warehouseId, y, 1_000);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<BatchTransferResult>> batches = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int from = i % 2 == 0 ? first : second;
+            int to = i % 2 == 0 ? second : first;
+            // the lines name the products in opposite orders too
+            List<TransferLine> lines = i % 2 == 0
+                    ? List.of(new TransferLine(x, from, to, 3), new TransferLine(y, from, to, 2))
+                    : List.of(new TransferLine(y, from, to, 3), new TransferLine(x, from, to, 2));
+            batches.add(pool.submit(() -> inventoryService.transferBatch(lines)));
+        }
+        for (Future<BatchTransferResult> batch : batches) {
+            assertEquals(2, batch.get(60, TimeUnit.SECONDS).getTransferredLines());
+        }
+        pool.shutdown();
+
+        Map<String, Integer> firstStock = stock(first);
+        Map<String, Integer> secondStock = stock(second);
+        assertEquals(2_000, firstStock.get(x) + secondStock.get(x));
+        assertEquals(2_000, firstStock.get(y) + secondStock.get(y));
+        assertEquals(firstStock.get(x) + firstStock.get(y), warehouseService.getCurrentWarehouseLoad(first));
+        assertEquals(secondStock.get(x) + secondStock.get(y), warehouseService.getCurrentWarehouseLoad(second));
+    }
+
+    @Test
+    void fullDestinationFailsTheLatestLinesAndKeepsTheEarlierOnes() {
+        int source = newWarehouse("Replan source", 100_000);
+        int destination = newWarehouse("Replan destination", 100);
+        String x = "RX-" + UUID.randomUUID();
+        String y = "RY-" + UUID.randomUUID();
+        String z = "RZ-" + UUID.randomUUID();
+        receive(source, x, 100);
+        receive(source, y, 100);
+        receive(source, z, 100);
+
+        BatchTransferResult result = inventoryService.transferBatch(List.of(
+                new TransferLine(x, source, destination, 60),
+                new TransferLine(y, source, destination, 30),
+                new TransferLine(z, source, destination, 30),
+                new TransferLine(x, source, destination, 40)));
+
+        List<TransferLineResult> lines = result.getResults();
+        assertTrue(lines.get(0).isTransferred());
+        assertTrue(lines.get(1).isTransferred());
+        assertFalse(lines.get(2).isTransferred());
+        assertFalse(lines.get(3).isTransferred());
+        assertEquals(2, result.getFailedLines());
+        assertEquals(90, warehouseService.getCurrentWarehouseLoad(destination));
+        assertEquals(Map.of(x, 60, y, 30), stock(destination));
+        assertEquals(Map.of(x, 40, y, 70, z, 100), stock(source));
+    }
+
+    @Test
+    void destinationRowsOfFailedLinesAreRemoved() {
+        int source = newWarehouse("Cleanup source", 100_000);
+        int destination = newWarehouse("Cleanup destination", 100_000);
+        String sku = "CX-" + UUID.randomUUID();
+        receive(source, sku, 10);
+
+        BatchTransferResult result = inventoryService.transferBatch(List.of(
+                new TransferLine(sku, source, destination, 50)));
+
+        assertFalse(result.getResults().get(0).isTransferred());
+        assertEquals(Map.of(), stock(destination));
+        assertEquals(0, warehouseService.getCurrentWarehouseLoad(destination));
+        assertEquals(Map.of(sku, 10), stock(source));
+    }
+
+    /**
+     * Quantities including pending journal movements, by SKU
+     */
+    private Map<String, Integer> stock(int warehouseId) {
+        Map<String, Integer> stock = new HashMap<>();
+        for (InventoryRow row : inventoryService.findInventoryPageByWarehouseId(warehouseId, 1_000, null, "id").getItems()) {
+            stock.put(row.getSku(), row.getQuantity());
+        }
+        return stock;
+    }
+
+    private int newWarehouse(String name, int maxCapacity) {
+        return warehouseService.saveWarehouse(new Warehouse(name, "Test", maxCapacity, null)).getId();
+    }
+
+    private Inventory receive(int warehouseId, String sku, int quantity) {
+        return inventoryService.addInventoryToWarehouse(warehouseId, sku, "Service item", null,
+                Department.PRODUCE, quantity, "A1");
+    }
+}
@@ -0,0 +1,64 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.skillstorm.inventory_management.DTO.LowStockItem;
+import com.skillstorm.inventory_management.DTO.StockThresholdRequest;
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Inventory;
+import com.skillstorm.inventory_management.Model.Warehouse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LowStockServiceTests {
+
+    @Autowired
+    private LowStockService lowStockService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Test
+    void writesAreCheckedInTheBackgroundAfterCommit() throws Exception {
+        int warehouseId = warehouseService.saveWarehouse(new Warehouse("Low stock", "Test", 10_000, null)).getId();
+        String sku = "LOW-" + UUID.randomUUID();
+        Inventory row = inventoryService.addInventoryToWarehouse(warehouseId, sku, "Low item", null,
+                Department.PRODUCE, 20, "A1");
+
+        StockThresholdRequest threshold = new StockThresholdRequest();
+        threshold.setSku(sku);
+        threshold.setReorderLevel(10);
+        lowStockService.saveThreshold(warehouseId, threshold);
+        awaitTrue(() -> lowStockService.findLowStock(warehouseId).isEmpty()
+                && !lowStockService.findThresholds(warehouseId).isEmpty());
+
+        inventoryService.applyQuantityDelta(row.getId(), -15);
+        awaitTrue(() -> lowStockService.findLowStock(warehouseId).size() == 1);
+        List<LowStockItem> low = lowStockService.findLowStock(warehouseId);
+        assertEquals(row.getId(), low.get(0).getInventoryId());
+
+        inventoryService.applyQuantityDelta(row.getId(), 30);
+        awaitTrue(() -> lowStockService.findLowStock(warehouseId).isEmpty());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
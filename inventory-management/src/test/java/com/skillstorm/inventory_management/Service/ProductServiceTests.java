@@ -0,0 +1,52 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.skillstorm.inventory_management.Model.Department;
+import com.skillstorm.inventory_management.Model.Product;
+import com.skillstorm.inventory_management.Repository.ProductRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductServiceTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void findOrCreateIgnoresCachedMissOfSkuCreatedElsewhere() {
+        String sku = "ELSEWHERE-" + UUID.randomUUID();
+        assertNull(productService.findBySku(sku));
+
+        // another instance creates the SKU while this one still caches it as unknown
+        Product created = productRepository.save(new Product(sku, "Created elsewhere", null, Department.PRODUCE));
+
+        Product found = productService.findOrCreateProductBySku(sku.toLowerCase(), "Duplicate", null, Department.PRODUCE);
+        assertEquals(created.getId(), found.getId());
+        assertEquals(created.getId(), productService.findBySku(sku).getId());
+    }
+
+    @Test
+    void writeLookupsReadCachedMissesFromTheDatabase() {
+        String sku = "BATCH-" + UUID.randomUUID();
+        assertEquals(Map.of(), productService.findBySkus(List.of(sku)));
+
+        Product created = productRepository.save(new Product(sku, "Created elsewhere", null, Department.PRODUCE));
+
+        Map<String, Product> found = productService.findBySkusForWrite(List.of(sku));
+        assertEquals(created.getId(), found.get(ProductService.normalizeSku(sku)).getId());
+    }
+}
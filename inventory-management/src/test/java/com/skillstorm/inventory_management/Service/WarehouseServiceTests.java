@@ -0,0 +1,136 @@
+package com.skillstorm.inventory_management.Service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.skillstorm.inventory_management.DTO.WarehouseSummary;
+import com.skillstorm.inventory_management.Model.Warehouse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class WarehouseServiceTests {
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentReservationsNeverPassMaxCapacity() throws Exception {
+        int warehouseId = warehouseService.saveWarehouse(new Warehouse("Striped", "Test", 100, null)).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 160; i++) {
+            results.add(pool.submit(() -> reserveRetryingDeadlocks(warehouseId, 1)));
+        }
+        int reserved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                reserved++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(100, reserved);
+        assertEquals(100, warehouseService.getCurrentWarehouseLoad(warehouseId));
+        assertEquals(0, warehouseService.getRemainingCapacity(warehouseId));
+    }
+
+    @Test
+    void loadReadersLeaveOutParkedAllowance() {
+        int warehouseId = warehouseService.saveWarehouse(new Warehouse("Parked", "Test", 100_000, null)).getId();
+        for (int i = 0; i < 5; i++) {
+            transactionTemplate.executeWithoutResult(status -> warehouseService.reserveCapacity(warehouseId, 10));
+        }
+        transactionTemplate.executeWithoutResult(status -> warehouseService.releaseCapacity(warehouseId, 20));
+
+        assertEquals(30, warehouseService.getCurrentWarehouseLoad(warehouseId));
+        assertEquals(99_970, warehouseService.getRemainingCapacity(warehouseId));
+        assertEquals(30, warehouseService.findWarehouseById(warehouseId).getCurrentLoad());
+        WarehouseSummary summary = warehouseService.findSummaries("Parked", null, null, "id", "asc").stream()
+                .filter(s -> s.getId() == warehouseId)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(30, summary.getCurrentLoad());
+
+        Integer locked = transactionTemplate.execute(status ->
+                warehouseService.lockWarehouses(List.of(warehouseId)).get(warehouseId).getCurrentLoad());
+        assertEquals(30, locked);
+    }
+
+    @Test
+    void fullWarehouseReclaimsAllowanceBeforeRefusing() {
+        int warehouseId = warehouseService.saveWarehouse(new Warehouse("Reclaim", "Test", 1_000, null)).getId();
+        for (int i = 0; i < 20; i++) {
+            transactionTemplate.executeWithoutResult(status -> warehouseService.reserveCapacity(warehouseId, 1));
+        }
+
+        Boolean fits = transactionTemplate.execute(status -> warehouseService.tryReserveCapacity(warehouseId, 980));
+        Boolean overflows = transactionTemplate.execute(status -> warehouseService.tryReserveCapacity(warehouseId, 1));
+        assertTrue(fits);
+        assertFalse(overflows);
+        assertEquals(1_000, warehouseService.getCurrentWarehouseLoad(warehouseId));
+
+        Map<Integer, Warehouse> locked = transactionTemplate.execute(status ->
+                warehouseService.lockWarehouses(List.of(warehouseId)));
+        assertEquals(1_000, locked.get(warehouseId).getCurrentLoad());
+    }
+
+    @Test
+    void shrinkingMaxCapacityReclaimsOutstandingAllowance() {
+        int warehouseId = warehouseService.saveWarehouse(new Warehouse("Shrunk", "Test", 10_000, null)).getId();
+        for (int i = 0; i < 20; i++) {
+            transactionTemplate.executeWithoutResult(status -> warehouseService.reserveCapacity(warehouseId, 1));
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> warehouseService.updateWarehouse(warehouseId, new Warehouse("Shrunk", "Test", 19, null)));
+        Warehouse updated = warehouseService.updateWarehouse(warehouseId, new Warehouse("Shrunk", "Test", 30, null));
+        assertEquals(30, updated.getMax_capacity());
+        assertEquals(20, updated.getCurrentLoad());
+
+        int reserved = 0;
+        for (int i = 0; i < 20; i++) {
+            Boolean fits = transactionTemplate.execute(status -> warehouseService.tryReserveCapacity(warehouseId, 1));
+            if (fits) {
+                reserved++;
+            }
+        }
+        assertEquals(10, reserved);
+        assertEquals(30, warehouseService.getCurrentWarehouseLoad(warehouseId));
+        assertEquals(0, warehouseService.getRemainingCapacity(warehouseId));
+    }
+
+    /**
+     * H2 keeps the row lock of a conditional stripe update that matched nothing, so a receipt waiting for
+     * the warehouse row can deadlock with a reclaim; the victim is retried the way a client would retry it
+     */
+    private Boolean reserveRetryingDeadlocks(int warehouseId, int quantity) {
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> warehouseService.tryReserveCapacity(warehouseId, quantity));
+            } catch (CannotAcquireLockException e) {
+                // rolled back as the deadlock victim, nothing was reserved
+            }
+        }
+    }
+}